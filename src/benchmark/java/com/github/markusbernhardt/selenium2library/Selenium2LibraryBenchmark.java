@@ -0,0 +1,41 @@
+package com.github.markusbernhardt.selenium2library;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Converting the arguments Robot Framework passes to every keyword.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Selenium2LibraryBenchmark {
+
+	protected Selenium2Library selenium2Library;
+
+	protected Object[] args;
+
+	@Setup
+	public void setUp() {
+		selenium2Library = new Selenium2Library();
+		args = new Object[] { "xpath=//div[@id='main']//a", 5, Boolean.TRUE, new String[] { "a", "b" }, null };
+	}
+
+	@Benchmark
+	public Object[] toStrings() {
+		return selenium2Library.toStrings(args);
+	}
+}
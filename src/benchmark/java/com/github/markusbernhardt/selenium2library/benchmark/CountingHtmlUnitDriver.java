@@ -0,0 +1,227 @@
+package com.github.markusbernhardt.selenium2library.benchmark;
+
+import java.util.List;
+import java.util.Set;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitWebElement;
+
+import com.gargoylesoftware.htmlunit.html.DomElement;
+
+/**
+ * HtmlUnitDriver counting the calls to the web driver and its elements. HtmlUnit
+ * runs in process, so every call counted is a round trip, which a real
+ * browser would have needed.
+ */
+public class CountingHtmlUnitDriver extends HtmlUnitDriver {
+
+	protected long roundTrips;
+
+	public CountingHtmlUnitDriver(boolean enableJavascript) {
+		super(enableJavascript);
+	}
+
+	/**
+	 * Returns the number of calls to the web driver and its elements so far.
+	 */
+	public synchronized long getRoundTrips() {
+		return roundTrips;
+	}
+
+	protected synchronized void roundTrip() {
+		roundTrips++;
+	}
+
+	@Override
+	protected WebElement newHtmlUnitWebElement(DomElement element) {
+		return new CountingHtmlUnitWebElement(this, element);
+	}
+
+	@Override
+	public void get(String url) {
+		roundTrip();
+		super.get(url);
+	}
+
+	@Override
+	public String getCurrentUrl() {
+		roundTrip();
+		return super.getCurrentUrl();
+	}
+
+	@Override
+	public String getTitle() {
+		roundTrip();
+		return super.getTitle();
+	}
+
+	@Override
+	public String getPageSource() {
+		roundTrip();
+		return super.getPageSource();
+	}
+
+	@Override
+	public List<WebElement> findElements(By by) {
+		roundTrip();
+		return super.findElements(by);
+	}
+
+	@Override
+	public WebElement findElement(By by) {
+		roundTrip();
+		return super.findElement(by);
+	}
+
+	@Override
+	public Object executeScript(String script, Object... args) {
+		roundTrip();
+		return super.executeScript(script, args);
+	}
+
+	@Override
+	public Object executeAsyncScript(String script, Object... args) {
+		roundTrip();
+		return super.executeAsyncScript(script, args);
+	}
+
+	@Override
+	public String getWindowHandle() {
+		roundTrip();
+		return super.getWindowHandle();
+	}
+
+	@Override
+	public Set<String> getWindowHandles() {
+		roundTrip();
+		return super.getWindowHandles();
+	}
+
+	@Override
+	public TargetLocator switchTo() {
+		roundTrip();
+		return super.switchTo();
+	}
+
+	@Override
+	public Navigation navigate() {
+		roundTrip();
+		return super.navigate();
+	}
+
+	@Override
+	public void close() {
+		roundTrip();
+		super.close();
+	}
+
+	@Override
+	public void quit() {
+		roundTrip();
+		super.quit();
+	}
+
+	protected static class CountingHtmlUnitWebElement extends HtmlUnitWebElement {
+
+		protected final CountingHtmlUnitDriver parent;
+
+		public CountingHtmlUnitWebElement(CountingHtmlUnitDriver parent, DomElement element) {
+			super(parent, element);
+			this.parent = parent;
+		}
+
+		@Override
+		public void click() {
+			parent.roundTrip();
+			super.click();
+		}
+
+		@Override
+		public void submit() {
+			parent.roundTrip();
+			super.submit();
+		}
+
+		@Override
+		public void sendKeys(CharSequence... keysToSend) {
+			parent.roundTrip();
+			super.sendKeys(keysToSend);
+		}
+
+		@Override
+		public void clear() {
+			parent.roundTrip();
+			super.clear();
+		}
+
+		@Override
+		public String getTagName() {
+			parent.roundTrip();
+			return super.getTagName();
+		}
+
+		@Override
+		public String getAttribute(String name) {
+			parent.roundTrip();
+			return super.getAttribute(name);
+		}
+
+		@Override
+		public boolean isSelected() {
+			parent.roundTrip();
+			return super.isSelected();
+		}
+
+		@Override
+		public boolean isEnabled() {
+			parent.roundTrip();
+			return super.isEnabled();
+		}
+
+		@Override
+		public boolean isDisplayed() {
+			parent.roundTrip();
+			return super.isDisplayed();
+		}
+
+		@Override
+		public String getText() {
+			parent.roundTrip();
+			return super.getText();
+		}
+
+		@Override
+		public Point getLocation() {
+			parent.roundTrip();
+			return super.getLocation();
+		}
+
+		@Override
+		public Dimension getSize() {
+			parent.roundTrip();
+			return super.getSize();
+		}
+
+		@Override
+		public String getCssValue(String propertyName) {
+			parent.roundTrip();
+			return super.getCssValue(propertyName);
+		}
+
+		@Override
+		public List<WebElement> findElements(By by) {
+			parent.roundTrip();
+			return super.findElements(by);
+		}
+
+		@Override
+		public WebElement findElement(By by) {
+			parent.roundTrip();
+			return super.findElement(by);
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package com.github.markusbernhardt.selenium2library.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP server serving generated fixture pages on localhost. The
+ * pages are generated once per URL and served from memory afterwards:
+ * <ul>
+ * <li>/table?rows=N&amp;columns=M - a table with a header, N rows and a
+ * footer</li>
+ * <li>/select?options=N - a multi select list and a combo box with N options
+ * each</li>
+ * <li>/frames?depth=N - N iframes nested into each other</li>
+ * <li>/dom?elements=N - N items with a link, a text field and a checkbox
+ * each, nested into deep divs</li>
+ * </ul>
+ */
+public class FixtureServer implements HttpHandler {
+
+	protected final HttpServer httpServer;
+
+	protected final ConcurrentMap<String, byte[]> pages = new ConcurrentHashMap<String, byte[]>();
+
+	protected FixtureServer(HttpServer httpServer) {
+		this.httpServer = httpServer;
+	}
+
+	/**
+	 * Starts a server on a free port of the loopback interface.
+	 */
+	public static FixtureServer start() throws IOException {
+		HttpServer httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		FixtureServer fixtureServer = new FixtureServer(httpServer);
+		httpServer.createContext("/", fixtureServer);
+		httpServer.start();
+		return fixtureServer;
+	}
+
+	public void stop() {
+		httpServer.stop(0);
+	}
+
+	/**
+	 * Returns the base URL without trailing slash.
+	 */
+	public String getUrl() {
+		return String.format("http://127.0.0.1:%d", httpServer.getAddress().getPort());
+	}
+
+	@Override
+	public void handle(HttpExchange exchange) throws IOException {
+		try {
+			String key = exchange.getRequestURI().getPath() + "?" + exchange.getRequestURI().getQuery();
+			byte[] page = pages.get(key);
+			if (page == null) {
+				String html = generate(exchange.getRequestURI().getPath(),
+						parseQuery(exchange.getRequestURI().getQuery()));
+				page = html != null ? html.getBytes("UTF-8") : null;
+				if (page != null) {
+					pages.putIfAbsent(key, page);
+				}
+			}
+
+			if (page == null) {
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+			exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+			exchange.sendResponseHeaders(200, page.length);
+			OutputStream outputStream = exchange.getResponseBody();
+			try {
+				outputStream.write(page);
+			} finally {
+				outputStream.close();
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	protected String generate(String path, Map<String, Integer> query) {
+		if (path.equals("/table")) {
+			return generateTable(get(query, "rows", 500), get(query, "columns", 10));
+		}
+		if (path.equals("/select")) {
+			return generateSelect(get(query, "options", 1000));
+		}
+		if (path.equals("/frames")) {
+			return generateFrames(get(query, "depth", 10));
+		}
+		if (path.equals("/dom")) {
+			return generateDom(get(query, "elements", 2000));
+		}
+		return null;
+	}
+
+	protected static String generateTable(int rows, int columns) {
+		StringBuilder html = begin("Big table");
+		html.append("<table id=\"big\" border=\"1\"><thead><tr>");
+		for (int column = 0; column < columns; column++) {
+			html.append("<th>Column ").append(column).append("</th>");
+		}
+		html.append("</tr></thead><tbody>");
+		for (int row = 0; row < rows; row++) {
+			html.append("<tr>");
+			for (int column = 0; column < columns; column++) {
+				html.append("<td>r").append(row).append('c').append(column).append("</td>");
+			}
+			html.append("</tr>");
+		}
+		html.append("</tbody><tfoot><tr>");
+		for (int column = 0; column < columns; column++) {
+			html.append("<td>Total ").append(column).append("</td>");
+		}
+		html.append("</tr></tfoot></table>");
+		return end(html);
+	}
+
+	protected static String generateSelect(int options) {
+		StringBuilder html = begin("Big select");
+		html.append("<form id=\"form\">");
+		for (String select : new String[] { "<select id=\"multi\" name=\"multi\" multiple=\"multiple\" size=\"10\">",
+				"<select id=\"single\" name=\"single\">" }) {
+			html.append(select);
+			for (int option = 0; option < options; option++) {
+				html.append("<option value=\"v").append(option).append("\">Option ").append(option)
+						.append("</option>");
+			}
+			html.append("</select>");
+		}
+		html.append("</form>");
+		return end(html);
+	}
+
+	protected static String generateFrames(int depth) {
+		StringBuilder html = begin("Frame " + depth);
+		if (depth > 0) {
+			html.append("<p>Frame ").append(depth).append("</p>");
+			html.append("<iframe id=\"frame\" name=\"frame\" src=\"/frames?depth=").append(depth - 1)
+					.append("\"></iframe>");
+		} else {
+			html.append("<p id=\"leaf\">Leaf</p>");
+		}
+		return end(html);
+	}
+
+	protected static String generateDom(int elements) {
+		StringBuilder html = begin("Heavy DOM");
+		int nesting = 20;
+		for (int i = 0; i < nesting; i++) {
+			html.append("<div class=\"level").append(i).append("\">");
+		}
+		html.append("<form id=\"form\">");
+		for (int i = 0; i < elements; i++) {
+			html.append("<div class=\"item\" id=\"item").append(i).append("\"><span>Item ").append(i)
+					.append("</span> <a id=\"link").append(i).append("\" href=\"#item").append(i).append("\">Link ")
+					.append(i).append("</a> <input type=\"text\" id=\"input").append(i).append("\" name=\"input")
+					.append(i).append("\" value=\"\"> <input type=\"checkbox\" id=\"check").append(i)
+					.append("\" name=\"check").append(i).append("\" value=\"on\"></div>");
+		}
+		html.append("</form>");
+		for (int i = 0; i < nesting; i++) {
+			html.append("</div>");
+		}
+		return end(html);
+	}
+
+	protected static StringBuilder begin(String title) {
+		return new StringBuilder(1 << 16).append("<!DOCTYPE html><html><head><title>").append(title)
+				.append("</title></head><body>");
+	}
+
+	protected static String end(StringBuilder html) {
+		return html.append("</body></html>").toString();
+	}
+
+	protected static Map<String, Integer> parseQuery(String query) {
+		Map<String, Integer> parameters = new HashMap<String, Integer>();
+		if (query == null) {
+			return parameters;
+		}
+		for (String parameter : query.split("&")) {
+			String[] nameValue = parameter.split("=", 2);
+			if (nameValue.length == 2) {
+				try {
+					parameters.put(nameValue[0], Integer.valueOf(nameValue[1]));
+				} catch (NumberFormatException e) {
+					// Ignore, use the default
+				}
+			}
+		}
+		return parameters;
+	}
+
+	protected static int get(Map<String, Integer> query, String name, int defaultValue) {
+		Integer value = query.get(name);
+		return value != null ? value : defaultValue;
+	}
+}
@@ -0,0 +1,205 @@
+package com.github.markusbernhardt.selenium2library.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.github.markusbernhardt.selenium2library.Selenium2Library;
+import com.github.markusbernhardt.selenium2library.keywords.BrowserManagement;
+import com.github.markusbernhardt.selenium2library.keywords.Element;
+import com.github.markusbernhardt.selenium2library.keywords.FormElement;
+import com.github.markusbernhardt.selenium2library.keywords.SelectElement;
+import com.github.markusbernhardt.selenium2library.keywords.TableElement;
+import com.github.markusbernhardt.selenium2library.utils.PerformanceStatistics;
+
+/**
+ * End-to-end throughput of the keywords on HtmlUnit against the pages of a
+ * local {@link FixtureServer}. The keywords are called through the keyword
+ * beans of a Selenium2Library instance, so all aspects are applied like in a
+ * test run. Reports keywords per second and round trips per keyword for each
+ * scenario and the latencies per keyword.<br>
+ * <br>
+ * Run it with:
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java@htmlunit -Dbenchmark.iterations=20 -Dbenchmark.warmup=5
+ * </pre>
+ */
+public class HtmlUnitBenchmark {
+
+	protected final static int TABLE_ROWS = 500;
+
+	protected final static int SELECT_OPTIONS = 1000;
+
+	protected final static int FRAME_DEPTH = 10;
+
+	protected final static int DOM_ELEMENTS = 2000;
+
+	protected final String url;
+
+	protected final BrowserManagement browserManagement;
+
+	protected final Element element;
+
+	protected final FormElement formElement;
+
+	protected final SelectElement selectElement;
+
+	protected final TableElement tableElement;
+
+	public HtmlUnitBenchmark(Selenium2Library selenium2Library, String url) {
+		this.url = url;
+		this.browserManagement = selenium2Library.getBrowserManagement();
+		this.element = selenium2Library.getElement();
+		this.formElement = selenium2Library.getFormElement();
+		this.selectElement = selenium2Library.getSelectElement();
+		this.tableElement = selenium2Library.getTableElement();
+	}
+
+	public static void main(String[] args) throws Exception {
+		int warmup = Integer.getInteger("benchmark.warmup", 3);
+		int iterations = Integer.getInteger("benchmark.iterations", 10);
+
+		FixtureServer fixtureServer = FixtureServer.start();
+		try {
+			Selenium2Library selenium2Library = new Selenium2Library();
+			CountingHtmlUnitDriver webDriver = new CountingHtmlUnitDriver(true);
+			selenium2Library.getBrowserManagement().getWebDriverCache().register(webDriver, "benchmark");
+			try {
+				HtmlUnitBenchmark benchmark = new HtmlUnitBenchmark(selenium2Library, fixtureServer.getUrl());
+				benchmark.run(webDriver, warmup, iterations);
+			} finally {
+				selenium2Library.getBrowserManagement().closeAllBrowsers();
+			}
+		} finally {
+			fixtureServer.stop();
+		}
+	}
+
+	public void run(CountingHtmlUnitDriver webDriver, int warmup, int iterations) {
+		List<Scenario> scenarios = createScenarios();
+		for (Scenario scenario : scenarios) {
+			for (int i = 0; i < warmup; i++) {
+				scenario.run();
+			}
+		}
+
+		PerformanceStatistics.enable();
+		try {
+			long totalKeywords = 0;
+			long totalRoundTrips = 0;
+			long totalNanos = 0;
+			for (Scenario scenario : scenarios) {
+				long roundTrips = webDriver.getRoundTrips();
+				long keywords = 0;
+				long start = System.nanoTime();
+				for (int i = 0; i < iterations; i++) {
+					keywords += scenario.run();
+				}
+				long nanos = System.nanoTime() - start;
+				roundTrips = webDriver.getRoundTrips() - roundTrips;
+				report(scenario.name, keywords, roundTrips, nanos);
+
+				totalKeywords += keywords;
+				totalRoundTrips += roundTrips;
+				totalNanos += nanos;
+			}
+			report("Total", totalKeywords, totalRoundTrips, totalNanos);
+		} finally {
+			System.out.println();
+			System.out.println(PerformanceStatistics.disable());
+		}
+	}
+
+	protected static void report(String name, long keywords, long roundTrips, long nanos) {
+		System.out.println(String.format(Locale.ENGLISH,
+				"%-12s %6d keywords, %8.1f keywords/s, %6.2f round trips/keyword, %8.3f ms/keyword", name, keywords,
+				keywords * 1000000000.0 / Math.max(1, nanos), roundTrips / (double) Math.max(1, keywords), nanos
+						/ 1000000.0 / Math.max(1, keywords)));
+	}
+
+	protected List<Scenario> createScenarios() {
+		List<Scenario> scenarios = new ArrayList<Scenario>();
+		scenarios.add(new Scenario("Big table") {
+
+			@Override
+			public int run() {
+				String table = "css=table#big";
+				browserManagement.goTo(String.format("%s/table?rows=%d&columns=10", url, TABLE_ROWS));
+				browserManagement.titleShouldBe("Big table");
+				tableElement.getTableCell(table, TABLE_ROWS / 2, 5);
+				tableElement.tableHeaderShouldContain(table, "Column 5");
+				tableElement.tableFooterShouldContain(table, "Total 9");
+				tableElement.tableShouldContain(table, String.format("r%dc7", TABLE_ROWS - 1));
+				element.getMatchingXpathCount("//table[@id='big']/tbody/tr");
+				return 7;
+			}
+		});
+		scenarios.add(new Scenario("Big select") {
+
+			@Override
+			public int run() {
+				browserManagement.goTo(String.format("%s/select?options=%d", url, SELECT_OPTIONS));
+				selectElement.selectFromListByValue("multi", "v" + SELECT_OPTIONS / 2);
+				selectElement.selectFromListByLabel("multi", "Option " + (SELECT_OPTIONS - 1));
+				selectElement.listSelectionShouldBe("multi", "v" + SELECT_OPTIONS / 2, "Option "
+						+ (SELECT_OPTIONS - 1));
+				selectElement.selectFromListByIndex("single", Integer.toString(SELECT_OPTIONS - 1));
+				selectElement.getSelectedListValue("single");
+				selectElement.getListItems("single");
+				return 7;
+			}
+		});
+		scenarios.add(new Scenario("Deep frames") {
+
+			@Override
+			public int run() {
+				browserManagement.goTo(String.format("%s/frames?depth=%d", url, FRAME_DEPTH));
+				for (int i = 0; i < FRAME_DEPTH; i++) {
+					browserManagement.selectFrame("frame");
+				}
+				element.elementTextShouldBe("leaf", "Leaf");
+				browserManagement.unselectFrame();
+				browserManagement.titleShouldBe("Frame " + FRAME_DEPTH);
+				return FRAME_DEPTH + 4;
+			}
+		});
+		scenarios.add(new Scenario("Heavy DOM") {
+
+			@Override
+			public int run() {
+				browserManagement.goTo(String.format("%s/dom?elements=%d", url, DOM_ELEMENTS));
+				element.pageShouldContainElement("link" + (DOM_ELEMENTS * 3 / 4));
+				element.elementShouldBeVisible("link10");
+				formElement.inputText("input" + DOM_ELEMENTS / 2, "benchmark");
+				formElement.textfieldValueShouldBe("input" + DOM_ELEMENTS / 2, "benchmark");
+				formElement.selectCheckbox("check10");
+				formElement.checkboxShouldBeSelected("check10");
+				element.getText("item" + DOM_ELEMENTS / 4);
+				element.xpathShouldMatchXTimes("//div[@class='item']", DOM_ELEMENTS);
+				element.clickLink("link" + (DOM_ELEMENTS - 1));
+				return 10;
+			}
+		});
+		return scenarios;
+	}
+
+	/**
+	 * A sequence of keywords on one of the fixture pages.
+	 */
+	protected static abstract class Scenario {
+
+		protected final String name;
+
+		protected Scenario(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Runs the keywords once.
+		 *
+		 * @return the number of keywords run
+		 */
+		public abstract int run();
+	}
+}
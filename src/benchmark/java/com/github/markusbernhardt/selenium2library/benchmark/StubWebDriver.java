@@ -0,0 +1,166 @@
+package com.github.markusbernhardt.selenium2library.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * A web driver without a browser. Every call returns a canned result at once,
+ * so benchmarks driving it measure the time spent in the library only.<br>
+ * <br>
+ * The web driver and its elements are dynamic proxies, so they stay
+ * compatible with every Selenium version. All elements are links with the
+ * text, attributes and location given below.
+ */
+public class StubWebDriver implements InvocationHandler {
+
+	public final static String CURRENT_URL = "http://localhost/fixtures/index.html";
+
+	public final static String TITLE = "Fixture";
+
+	public final static String TAG_NAME = "a";
+
+	public final static String TEXT = "Next page";
+
+	protected final List<WebElement> elements;
+
+	protected final AtomicLong calls = new AtomicLong();
+
+	protected StubWebDriver(int elementCount) {
+		List<WebElement> elements = new ArrayList<WebElement>(elementCount);
+		for (int i = 0; i < elementCount; i++) {
+			elements.add((WebElement) Proxy.newProxyInstance(WebElement.class.getClassLoader(),
+					new Class<?>[] { WebElement.class }, new StubWebElement()));
+		}
+		this.elements = Collections.unmodifiableList(elements);
+	}
+
+	/**
+	 * Creates a web driver finding the given number of elements for every
+	 * locator.
+	 *
+	 * @param elementCount
+	 *            the number of elements found
+	 * @return the web driver, which is a JavascriptExecutor too
+	 */
+	public static WebDriver create(int elementCount) {
+		return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(), new Class<?>[] {
+				WebDriver.class, JavascriptExecutor.class }, new StubWebDriver(elementCount));
+	}
+
+	/**
+	 * Returns the handler of a web driver created by {@link #create(int)}.
+	 */
+	public static StubWebDriver of(WebDriver webDriver) {
+		return (StubWebDriver) Proxy.getInvocationHandler(webDriver);
+	}
+
+	/**
+	 * Returns the number of calls to the web driver so far, i.e. the round
+	 * trips a real browser would have needed.
+	 */
+	public long getCalls() {
+		return calls.get();
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) {
+		String name = method.getName();
+		if (name.equals("equals")) {
+			return proxy == args[0];
+		}
+		if (name.equals("hashCode")) {
+			return System.identityHashCode(proxy);
+		}
+		if (name.equals("toString")) {
+			return "StubWebDriver";
+		}
+
+		calls.incrementAndGet();
+		if (name.equals("getCurrentUrl")) {
+			return CURRENT_URL;
+		}
+		if (name.equals("getTitle")) {
+			return TITLE;
+		}
+		if (name.equals("getWindowHandle")) {
+			return "stub";
+		}
+		if (name.equals("getWindowHandles")) {
+			return Collections.singleton("stub");
+		}
+		if (name.equals("getPageSource")) {
+			return "<html><head><title>" + TITLE + "</title></head><body></body></html>";
+		}
+		if (name.equals("findElements")) {
+			// Callers add to the found elements
+			return new ArrayList<WebElement>(elements);
+		}
+		if (name.equals("findElement")) {
+			return elements.get(0);
+		}
+		if (name.equals("executeScript") || name.equals("executeAsyncScript")) {
+			return new ArrayList<WebElement>(elements);
+		}
+		return defaultValue(method.getReturnType());
+	}
+
+	protected static Object defaultValue(Class<?> type) {
+		if (type == boolean.class) {
+			return Boolean.FALSE;
+		}
+		if (type == int.class) {
+			return 0;
+		}
+		if (type == long.class) {
+			return 0L;
+		}
+		return null;
+	}
+
+	protected class StubWebElement implements InvocationHandler {
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			String name = method.getName();
+			if (name.equals("equals")) {
+				return proxy == args[0];
+			}
+			if (name.equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			}
+			if (name.equals("toString")) {
+				return "StubWebElement";
+			}
+
+			calls.incrementAndGet();
+			if (name.equals("getTagName")) {
+				return TAG_NAME;
+			}
+			if (name.equals("getText")) {
+				return TEXT;
+			}
+			if (name.equals("getAttribute")) {
+				return "href".equals(args[0]) ? CURRENT_URL : "";
+			}
+			if (name.equals("isDisplayed") || name.equals("isEnabled")) {
+				return Boolean.TRUE;
+			}
+			if (name.equals("findElements")) {
+				return new ArrayList<WebElement>(elements);
+			}
+			if (name.equals("findElement")) {
+				return elements.get(0);
+			}
+			return defaultValue(method.getReturnType());
+		}
+	}
+}
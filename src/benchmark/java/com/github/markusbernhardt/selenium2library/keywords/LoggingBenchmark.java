@@ -0,0 +1,49 @@
+package com.github.markusbernhardt.selenium2library.keywords;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Formatting a keyword log message and passing it to Robot Framework through
+ * the Jython logger bridge. Outside of a test run the Robot logger discards
+ * the messages, so the bridge is measured without the cost of writing the
+ * output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+	protected Logging logging;
+
+	protected String locator = "xpath=//div[@id='main']//a[normalize-space(text())='Next page']";
+
+	@Setup
+	public void setUp() {
+		logging = new Logging();
+	}
+
+	@Benchmark
+	public void log0() {
+		logging.log0(String.format("Clicking element '%s'.", locator), "info", "");
+	}
+
+	@Benchmark
+	public void log0Html() {
+		logging.log0(String.format("<a href=\"%s\"><img src=\"%s\" width=\"800px\"></a>", locator, locator),
+				"info", "html");
+	}
+}
@@ -0,0 +1,90 @@
+package com.github.markusbernhardt.selenium2library.locators;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import com.github.markusbernhardt.selenium2library.benchmark.StubWebDriver;
+import com.github.markusbernhardt.selenium2library.locators.ElementFinder.FindByCoordinates;
+import com.github.markusbernhardt.selenium2library.locators.ElementFinder.KeyAttrs;
+import com.github.markusbernhardt.selenium2library.locators.ElementFinder.Strategy;
+
+/**
+ * Parsing the locators and building the key attribute XPaths, uncached and
+ * through the caches of the ElementFinder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElementFinderBenchmark {
+
+	@Param({ "Next page", "id=username", "xpath=//div[@id='main']//a", "css=#main > ul li.item" })
+	public String locator;
+
+	@Param({ "link", "text field" })
+	public String tag;
+
+	protected WebDriver webDriver;
+
+	protected String baseUrl;
+
+	@Setup
+	public void setUp() {
+		webDriver = StubWebDriver.create(1);
+		baseUrl = ElementFinder.getBaseUrl(webDriver);
+	}
+
+	@Benchmark
+	public Strategy parseLocator() {
+		return ElementFinder.parseLocator(new FindByCoordinates(), locator);
+	}
+
+	@Benchmark
+	public FindByCoordinates parseLocatorAndTag() {
+		FindByCoordinates findByCoordinates = new FindByCoordinates();
+		Strategy strategy = ElementFinder.parseLocator(findByCoordinates, locator);
+		ElementFinder.parseTag(findByCoordinates, strategy, tag);
+		return findByCoordinates;
+	}
+
+	@Benchmark
+	public String buildKeyAttrsXpath() {
+		FindByCoordinates findByCoordinates = new FindByCoordinates();
+		Strategy strategy = ElementFinder.parseLocator(findByCoordinates, locator);
+		ElementFinder.parseTag(findByCoordinates, strategy, tag);
+		KeyAttrs keyAttrs = ElementFinder.keyAttrsByTag.get(findByCoordinates.tag.toUpperCase());
+		if (keyAttrs == null) {
+			keyAttrs = KeyAttrs.DEFAULT;
+		}
+		return ElementFinder.buildKeyAttrsXpath(keyAttrs, findByCoordinates, baseUrl);
+	}
+
+	@Benchmark
+	public List<WebElement> findByKeyAttrs() {
+		FindByCoordinates findByCoordinates = new FindByCoordinates();
+		Strategy strategy = ElementFinder.parseLocator(findByCoordinates, locator);
+		ElementFinder.parseTag(findByCoordinates, strategy, tag);
+		return ElementFinder.findByKeyAttrs(webDriver, findByCoordinates);
+	}
+
+	@Benchmark
+	public List<WebElement> find() {
+		return ElementFinder.find(webDriver, locator, tag);
+	}
+}
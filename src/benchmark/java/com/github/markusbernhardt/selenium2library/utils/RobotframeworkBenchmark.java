@@ -0,0 +1,59 @@
+package com.github.markusbernhardt.selenium2library.utils;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Converting the time strings, URLs and paths passed to and returned from
+ * the keywords.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RobotframeworkBenchmark {
+
+	@Param({ "5", "5 seconds", "1 hour 2 minutes 3.5 seconds" })
+	public String timestr;
+
+	protected double secs = 3723.5;
+
+	protected String url = "screenshots/selenium-screenshot-1 (über).png";
+
+	protected File target = new File("output/screenshots/selenium-screenshot-1.png").getAbsoluteFile();
+
+	protected File base = new File("output").getAbsoluteFile();
+
+	@Benchmark
+	public double timestrToSecs() {
+		return Robotframework.timestrToSecs(timestr);
+	}
+
+	@Benchmark
+	public String secsToTimestr() {
+		return Robotframework.secsToTimestr(secs);
+	}
+
+	@Benchmark
+	public String encodeURLComponent() {
+		return Robotframework.encodeURLComponent(url);
+	}
+
+	@Benchmark
+	public String getPathname() {
+		return Robotframework.getPathname(target, base);
+	}
+}
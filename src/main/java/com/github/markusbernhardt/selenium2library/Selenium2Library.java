@@ -16,6 +16,7 @@ import com.github.markusbernhardt.selenium2library.keywords.Element;
 import com.github.markusbernhardt.selenium2library.keywords.FormElement;
 import com.github.markusbernhardt.selenium2library.keywords.JavaScript;
 import com.github.markusbernhardt.selenium2library.keywords.Logging;
+import com.github.markusbernhardt.selenium2library.keywords.Performance;
 import com.github.markusbernhardt.selenium2library.keywords.RunOnFailure;
 import com.github.markusbernhardt.selenium2library.keywords.Screenshot;
 import com.github.markusbernhardt.selenium2library.keywords.SelectElement;
@@ -268,6 +269,12 @@ public class Selenium2Library extends AnnotationLibrary {
 	 */
 	public static final String ROBOT_LIBRARY_VERSION = loadRobotLibraryVersion();
 
+	/**
+	 * The listener of this library, e.g. to write pending screenshots at the
+	 * end of each suite.
+	 */
+	public final Selenium2LibraryListener ROBOT_LIBRARY_LISTENER = new Selenium2LibraryListener(this);
+
 	private static String loadRobotLibraryVersion() {
 		try {
 			return ResourceBundle.getBundle(Selenium2Library.class.getCanonicalName().replace(".", File.separator))
@@ -289,6 +296,10 @@ public class Selenium2Library extends AnnotationLibrary {
 		this(timeout, implicitWait, "Capture Page Screenshot");
 	}
 
+	public Selenium2Library(String timeout, String implicitWait, String keywordToRunOnFailure) {
+		this(timeout, implicitWait, keywordToRunOnFailure, "format=png");
+	}
+
 	/**
 	 * Selenium2Library can be imported with optional arguments.<br>
 	 * <br>
@@ -309,6 +320,10 @@ public class Selenium2Library extends AnnotationLibrary {
 	 * altogether. See `Register Keyword To Run On Failure` keyword for details
 	 * about this functionality.<br>
 	 * <br>
+	 * <b>screenshotOptions</b> specifies the format, the maximum width and the
+	 * thumbnail width of the screenshots. It can be changed later with `Set
+	 * Screenshot Options`, which also describes the options.<br>
+	 * <br>
 	 * Examples:
 	 * <table border="1" cellspacing="0" summary="">
 	 * <tr>
@@ -318,6 +333,7 @@ public class Selenium2Library extends AnnotationLibrary {
 	 * <td></td>
 	 * <td></td>
 	 * <td></td>
+	 * <td></td>
 	 * </tr>
 	 * <tr>
 	 * <td>Library</td>
@@ -325,6 +341,7 @@ public class Selenium2Library extends AnnotationLibrary {
 	 * <td>15</td>
 	 * <td></td>
 	 * <td></td>
+	 * <td></td>
 	 * <td># Sets timeout to 15 seconds</td>
 	 * </tr>
 	 * <tr>
@@ -333,6 +350,7 @@ public class Selenium2Library extends AnnotationLibrary {
 	 * <td>0</td>
 	 * <td>5</td>
 	 * <td></td>
+	 * <td></td>
 	 * <td># Sets timeout to 0 seconds and implicitWait to 5 seconds</td>
 	 * </tr>
 	 * <tr>
@@ -341,6 +359,7 @@ public class Selenium2Library extends AnnotationLibrary {
 	 * <td>0</td>
 	 * <td>5</td>
 	 * <td>Log Source</td>
+	 * <td></td>
 	 * <td># Sets timeout to 0 seconds, implicitWait to 5 seconds and runs `Log
 	 * Source` on failure</td>
 	 * </tr>
@@ -350,9 +369,20 @@ public class Selenium2Library extends AnnotationLibrary {
 	 * <td>0</td>
 	 * <td>5</td>
 	 * <td>Nothing</td>
+	 * <td></td>
 	 * <td># Sets timeout to 0 seconds, implicitWait to 5 seconds and does
 	 * nothing on failure</td>
 	 * </tr>
+	 * <tr>
+	 * <td>Library</td>
+	 * <td>Selenium2Library</td>
+	 * <td>5</td>
+	 * <td>0</td>
+	 * <td>Capture Page Screenshot</td>
+	 * <td>format=jpeg:80, maxWidth=1280</td>
+	 * <td># Stores the screenshots as JPEG scaled down to at most 1280 pixels
+	 * width</td>
+	 * </tr>
 	 * </table>
 	 * 
 	 * @param timeout
@@ -362,14 +392,18 @@ public class Selenium2Library extends AnnotationLibrary {
 	 * @param keywordToRunOnFailure
 	 *            Default=Capture Page Screenshot. Optional custom keyword to
 	 *            run on failure.
+	 * @param screenshotOptions
+	 *            Default=format=png. Optional screenshot options.
 	 */
-	public Selenium2Library(String timeout, String implicitWait, String keywordToRunOnFailure) {
+	public Selenium2Library(String timeout, String implicitWait, String keywordToRunOnFailure,
+			String screenshotOptions) {
 		super();
 		addKeywordPattern(KEYWORD_PATTERN);
 		createKeywordFactory(); // => init annotations
 		browserManagement.setSeleniumTimeout(timeout);
 		browserManagement.setSeleniumImplicitWait(implicitWait);
 		runOnFailure.registerKeywordToRunOnFailure(keywordToRunOnFailure);
+		screenshot.setScreenshotOptions(screenshotOptions);
 	}
 
 	// ##############################
@@ -412,6 +446,12 @@ public class Selenium2Library extends AnnotationLibrary {
 	@Autowired
 	protected Logging logging;
 
+	/**
+	 * Instantiated Performance keyword bean
+	 */
+	@Autowired
+	protected Performance performance;
+
 	/**
 	 * Instantiated RunOnFailure keyword bean
 	 */
@@ -470,6 +510,10 @@ public class Selenium2Library extends AnnotationLibrary {
 		return logging;
 	}
 
+	public Performance getPerformance() {
+		return performance;
+	}
+
 	public RunOnFailure getRunOnFailure() {
 		return runOnFailure;
 	}
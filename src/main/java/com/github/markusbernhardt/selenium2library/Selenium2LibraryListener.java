@@ -0,0 +1,69 @@
+package com.github.markusbernhardt.selenium2library;
+
+import java.util.Map;
+
+import com.github.markusbernhardt.selenium2library.keywords.Screenshot;
+
+/**
+ * Library listener of the Selenium2Library. Registered with Robot Framework
+ * through {@link Selenium2Library#ROBOT_LIBRARY_LISTENER}.
+ */
+public class Selenium2LibraryListener {
+
+	/**
+	 * The listener interface version of this listener
+	 */
+	public static final int ROBOT_LISTENER_API_VERSION = 2;
+
+	protected final Selenium2Library library;
+
+	/**
+	 * Nesting depth of the running keywords. 1 is a keyword called directly
+	 * by a test or by a suite setup or teardown.
+	 */
+	protected int keywordDepth;
+
+	public Selenium2LibraryListener(Selenium2Library library) {
+		this.library = library;
+	}
+
+	public void startKeyword(String name, Map<?, ?> attributes) {
+		keywordDepth++;
+	}
+
+	/**
+	 * Writes the snapshots captured on failure into the log of a failed
+	 * keyword called directly by a test or by a suite setup or teardown. Its
+	 * failure fails the test or suite. Robot Framework puts messages logged
+	 * here into the log of the keyword, while messages logged by the other
+	 * listener methods only go to the syslog.
+	 */
+	public void endKeyword(String name, Map<?, ?> attributes) {
+		if (--keywordDepth > 0) {
+			return;
+		}
+		keywordDepth = 0;
+		if ("FAIL".equals(attributes.get("status"))) {
+			library.getRunOnFailure().persistFailureCaptures();
+		}
+	}
+
+	/**
+	 * Drops the snapshots of failures, that did not fail the test.
+	 */
+	public void endTest(String name, Map<?, ?> attributes) {
+		keywordDepth = 0;
+		library.getRunOnFailure().clearFailureCaptures();
+	}
+
+	/**
+	 * Handles the snapshots captured in suite setup and teardown like
+	 * {@link #endTest(String, Map)} and writes the screenshots still pending in
+	 * the background, so they exist when the suite is done.
+	 */
+	public void endSuite(String name, Map<?, ?> attributes) {
+		keywordDepth = 0;
+		library.getRunOnFailure().clearFailureCaptures();
+		library.getScreenshot().flush(Screenshot.DEFAULT_FLUSH_TIMEOUT);
+	}
+}
@@ -9,6 +9,7 @@ import java.net.URL;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -51,11 +52,15 @@ import org.robotframework.javalib.annotation.RobotKeywords;
 import com.github.markusbernhardt.selenium2library.RunOnFailureKeywordsAdapter;
 import com.github.markusbernhardt.selenium2library.Selenium2LibraryFatalException;
 import com.github.markusbernhardt.selenium2library.Selenium2LibraryNonFatalException;
+import com.github.markusbernhardt.selenium2library.locators.ElementCache;
 import com.github.markusbernhardt.selenium2library.locators.ElementFinder;
+import com.github.markusbernhardt.selenium2library.locators.NetworkMonitor;
 import com.github.markusbernhardt.selenium2library.locators.WindowManager;
 import com.github.markusbernhardt.selenium2library.utils.Robotframework;
+import com.github.markusbernhardt.selenium2library.utils.ConcurrentWebDriverCache;
 import com.github.markusbernhardt.selenium2library.utils.WebDriverCache;
 import com.github.markusbernhardt.selenium2library.utils.WebDriverCache.SessionIdAliasWebDriverTuple;
+import com.github.markusbernhardt.selenium2library.utils.WebDriverPool;
 import com.machinepublishers.jbrowserdriver.JBrowserDriver;
 import com.opera.core.systems.OperaDriver;
 
@@ -79,7 +84,7 @@ public class BrowserManagement extends RunOnFailureKeywordsAdapter {
 	/**
 	 * Cache for all open browsers.
 	 */
-	protected WebDriverCache webDriverCache = new WebDriverCache();
+	protected volatile WebDriverCache webDriverCache = new WebDriverCache();
 
 	/**
 	 * Timeout in milliseconds
@@ -91,6 +96,11 @@ public class BrowserManagement extends RunOnFailureKeywordsAdapter {
 	 */
 	protected double implicitWait = 0;
 
+	/**
+	 * Install the network monitor after each navigation
+	 */
+	protected volatile boolean networkMonitorEnabled = false;
+
 	/**
 	 * Instantiated Logging keyword bean
 	 */
@@ -103,6 +113,18 @@ public class BrowserManagement extends RunOnFailureKeywordsAdapter {
 	@Autowired
 	protected Element element;
 
+	/**
+	 * Instantiated Performance keyword bean
+	 */
+	@Autowired
+	protected Performance performance;
+
+	/**
+	 * Instantiated Screenshot keyword bean
+	 */
+	@Autowired
+	protected Screenshot screenshot;
+
 	// ##############################
 	// Getter / Setter
 	// ##############################
@@ -181,6 +203,75 @@ public class BrowserManagement extends RunOnFailureKeywordsAdapter {
 		ElementFinder.addLocationStrategy(strategyName, functionDefinition, delimiter);
 	}
 
+	/**
+	 * Sets the actual and returns the previous mode used to resolve locators
+	 * with the <b>identifier</b> strategy.<br>
+	 * <br>
+	 * In mode <b>single</b> (default) elements matching by @id or @name are
+	 * found with one call to the browser. They are returned in document order
+	 * and each element is returned only once. In mode <b>legacy</b> the
+	 * elements matching by @id are searched first and the elements matching by
+	 * @name are searched afterwards with a second call, like in older versions
+	 * of this library.<br>
+	 * <br>
+	 * Example:
+	 * <table border="1" cellspacing="0" summary="">
+	 * <tr>
+	 * <td>${previous mode}=</td>
+	 * <td>Set Identifier Strategy Mode</td>
+	 * <td>legacy</td>
+	 * </tr>
+	 * </table>
+	 * 
+	 * @param mode
+	 *            Either single or legacy.
+	 * @return The previous mode.
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "mode" })
+	public String setIdentifierStrategyMode(String mode) {
+		String oldMode = ElementFinder.isLegacyIdentifierStrategy() ? "legacy" : "single";
+		if ("legacy".equalsIgnoreCase(mode.trim())) {
+			ElementFinder.setLegacyIdentifierStrategy(true);
+		} else if ("single".equalsIgnoreCase(mode.trim())) {
+			ElementFinder.setLegacyIdentifierStrategy(false);
+		} else {
+			throw new Selenium2LibraryNonFatalException(String.format("Invalid identifier strategy mode '%s'", mode));
+		}
+		return oldMode;
+	}
+
+	/**
+	 * Installs the network monitor used by `Wait Until Network Is Idle` after
+	 * every keyword, that might load another document, e.g. `Go To` or `Click
+	 * Element`.<br>
+	 * <br>
+	 * WebDriver can not run scripts before the scripts of a new document. So
+	 * requests started by the document before the monitor is installed are not
+	 * counted as pending. Their completion is still noticed as network
+	 * activity. Without this keyword the monitor is installed by the first
+	 * check of `Wait Until Network Is Idle`.
+	 * 
+	 * @see BrowserManagement#disableNetworkMonitor
+	 */
+	@RobotKeyword
+	public void enableNetworkMonitor() {
+		networkMonitorEnabled = true;
+		if (webDriverCache.getCurrent() != null) {
+			NetworkMonitor.install(webDriverCache.getCurrent());
+		}
+	}
+
+	/**
+	 * Stops installing the network monitor after every navigation.
+	 * 
+	 * @see BrowserManagement#enableNetworkMonitor
+	 */
+	@RobotKeyword
+	public void disableNetworkMonitor() {
+		networkMonitorEnabled = false;
+	}
+
 	/**
 	 * Closes the current browser instance.<br>
 	 * 
@@ -377,10 +468,11 @@ public class BrowserManagement extends RunOnFailureKeywordsAdapter {
 						String.format("Opening browser '%s' to base url '%s'", map.get("browsername"), map.get("url")));
 			}
 
-			WebDriver webDriver = createWebDriver(map.get("browsername"), map.get("desiredcapabilities"),
+			WebDriver webDriver = leaseOrCreateWebDriver(map.get("browsername"), map.get("desiredcapabilities"),
 					map.get("remoteurl"), map.get("browseroptions"));
 			webDriver.get(map.get("url"));
 			String sessionId = webDriverCache.register(webDriver, map.get("alias"));
+			invalidateDocumentCaches();
 			logging.debug(String.format("Opened browser with session id %s", sessionId));
 			return sessionId;
 		} catch (Throwable t) {
@@ -502,21 +594,196 @@ public class BrowserManagement extends RunOnFailureKeywordsAdapter {
 		}
 	}
 
+	/**
+	 * Sets the actual and returns the previous mode of the browser cache.<br>
+	 * <br>
+	 * In mode <b>shared</b> (default) there is one current browser for the
+	 * whole library. In mode <b>per thread</b> every thread driving the
+	 * library has its own current browser, its own aliases and its own
+	 * browsers closed by `Close All Browsers`. Use it, if several threads of
+	 * one JVM run tests in parallel. Browser indexes are unique among all
+	 * threads in this mode.<br>
+	 * <br>
+	 * The mode can only be changed while no browser is open.<br>
+	 * <br>
+	 * Example:
+	 * <table border="1" cellspacing="0" summary="">
+	 * <tr>
+	 * <td>${previous mode}=</td>
+	 * <td>Set Browser Cache Mode</td>
+	 * <td>per thread</td>
+	 * </tr>
+	 * </table>
+	 * 
+	 * @param mode
+	 *            Either shared or per thread.
+	 * @return The previous mode.
+	 * 
+	 * @see BrowserManagement#openBrowser
+	 * @see BrowserManagement#switchBrowser
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "mode" })
+	public synchronized String setBrowserCacheMode(String mode) {
+		String oldMode = webDriverCache instanceof ConcurrentWebDriverCache ? "per thread" : "shared";
+		String normalizedMode = mode.trim().toLowerCase().replace('-', ' ').replace('_', ' ');
+		WebDriverCache newWebDriverCache;
+		if ("shared".equals(normalizedMode)) {
+			newWebDriverCache = new WebDriverCache();
+		} else if ("per thread".equals(normalizedMode)) {
+			newWebDriverCache = new ConcurrentWebDriverCache();
+		} else {
+			throw new Selenium2LibraryNonFatalException(String.format("Invalid browser cache mode '%s'", mode));
+		}
+		if (oldMode.equals(normalizedMode)) {
+			return oldMode;
+		}
+
+		Collection<SessionIdAliasWebDriverTuple> openBrowsers = webDriverCache instanceof ConcurrentWebDriverCache
+				? ((ConcurrentWebDriverCache) webDriverCache).getWebDriversOfAllThreads()
+				: webDriverCache.getWebDrivers();
+		if (!openBrowsers.isEmpty()) {
+			throw new Selenium2LibraryNonFatalException(
+					"The browser cache mode can only be changed while no browser is open.");
+		}
+		newWebDriverCache.setWebDriverPool(webDriverCache.getWebDriverPool());
+		webDriverCache = newWebDriverCache;
+		return oldMode;
+	}
+
+	@RobotKeywordOverload
+	public void enableBrowserPool() {
+		enableBrowserPool("1");
+	}
+
+	@RobotKeywordOverload
+	public void enableBrowserPool(String size) {
+		enableBrowserPool(size, "5 minutes");
+	}
+
+	/**
+	 * Enables the pool of warm browser instances.<br>
+	 * <br>
+	 * With the pool enabled `Open Browser` leases an idle browser instance
+	 * started with the same browser name, desired capabilities, remote URL and
+	 * browser options, if available. Afterwards further browser instances of
+	 * this kind are started in the background for the next `Open Browser`,
+	 * until the idle and the open browser instances of this kind add up to
+	 * <b>size</b>. `Close Browser` and `Close All Browsers` return the browser
+	 * instances to the pool instead of quitting them. Before, the cookies and
+	 * the web storage of the current document are deleted, all windows but the
+	 * first one are closed and about:blank is loaded. So with the default size
+	 * of 1, a test opening and closing one browser after the other reuses the
+	 * same browser instance.<br>
+	 * <br>
+	 * Idle browser instances are quit after <b>idleTimeout</b>. Idle browser
+	 * instances not responding anymore are quit instead of being leased.<br>
+	 * <br>
+	 * Example:
+	 * <table border="1" cellspacing="0" summary="">
+	 * <tr>
+	 * <td>Enable Browser Pool</td>
+	 * <td>2</td>
+	 * <td>10 minutes</td>
+	 * </tr>
+	 * </table>
+	 * 
+	 * @param size
+	 *            Default=1. The maximum number of idle browser instances per
+	 *            kind of browser, open ones included when starting new
+	 *            ones.
+	 * @param idleTimeout
+	 *            Default=5 minutes. The time after which idle browser
+	 *            instances are quit.
+	 * 
+	 * @see BrowserManagement#disableBrowserPool
+	 * @see BrowserManagement#getBrowserPoolStatistics
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "size=1", "idleTimeout=5 minutes" })
+	public synchronized void enableBrowserPool(String size, String idleTimeout) {
+		WebDriverPool webDriverPool = new WebDriverPool(Integer.parseInt(size.trim()),
+				(long) (Robotframework.timestrToSecs(idleTimeout) * 1000.0));
+		WebDriverPool oldWebDriverPool = webDriverCache.getWebDriverPool();
+		webDriverCache.setWebDriverPool(webDriverPool);
+		if (oldWebDriverPool != null) {
+			oldWebDriverPool.shutdown();
+		}
+	}
+
+	/**
+	 * Disables the pool of warm browser instances and quits all idle browser
+	 * instances. Browser instances still open are quit when they are closed.
+	 * 
+	 * @see BrowserManagement#enableBrowserPool
+	 */
+	@RobotKeyword
+	public synchronized void disableBrowserPool() {
+		WebDriverPool webDriverPool = webDriverCache.getWebDriverPool();
+		if (webDriverPool != null) {
+			// Browser instances still leased are quit on close, as they are
+			// not returned to any pool anymore
+			webDriverCache.setWebDriverPool(null);
+			webDriverPool.shutdown();
+		}
+	}
+
+	/**
+	 * Returns and logs the statistics of the pool of warm browser instances,
+	 * i.e. how many browser instances were started and how often they were
+	 * reused.
+	 * 
+	 * @return The statistics of the browser pool.
+	 * 
+	 * @see BrowserManagement#enableBrowserPool
+	 */
+	@RobotKeyword
+	public String getBrowserPoolStatistics() {
+		WebDriverPool webDriverPool = webDriverCache.getWebDriverPool();
+		String statistics = webDriverPool != null ? webDriverPool.toString() : "Browser pool disabled";
+		logging.info(statistics);
+		return statistics;
+	}
+
+	@RobotKeywordOverload
+	public void closeAllBrowsers() {
+		closeAllBrowsers("30 seconds");
+	}
+
 	/**
 	 * Closes all open browser instances and resets the browser cache.<br>
 	 * <br>
 	 * After this keyword new indexes returned from `Open Browser` keyword are
 	 * reset to 1. This keyword should be used in test or suite teardown to make
 	 * sure all browsers are closed.<br>
+	 * <br>
+	 * The browser instances are closed in parallel. Browser instances not
+	 * closed within <b>timeout</b> are abandoned and reported with a
+	 * warning. Screenshots still written in the background are flushed
+	 * too. If a file is given to `Enable Performance Statistics`, the
+	 * performance statistics are written to it.<br>
+	 * 
+	 * @param timeout
+	 *            Default=30 seconds. The time a single browser instance may
+	 *            take to close.
 	 * 
 	 * @see BrowserManagement#closeBrowser
 	 * @see BrowserManagement#openBrowser
 	 * @see BrowserManagement#switchBrowser
 	 */
 	@RobotKeyword
-	public void closeAllBrowsers() {
+	@ArgumentNames({ "timeout=30 seconds" })
+	public void closeAllBrowsers(String timeout) {
 		logging.debug("Closing all browsers");
-		webDriverCache.closeAll();
+		List<SessionIdAliasWebDriverTuple> notQuit = webDriverCache
+				.closeAll((long) (Robotframework.timestrToSecs(timeout) * 1000.0));
+		ElementCache.clearAll();
+		for (SessionIdAliasWebDriverTuple sessionIdAliasWebDriverTuple : notQuit) {
+			logging.warn(String.format("Browser with session id %s failed to close within %s",
+					sessionIdAliasWebDriverTuple.id, timeout));
+		}
+		screenshot.flush(Screenshot.DEFAULT_FLUSH_TIMEOUT);
+		performance.writeStatisticsFile();
 	}
 
 	/**
@@ -525,6 +792,7 @@ public class BrowserManagement extends RunOnFailureKeywordsAdapter {
 	@RobotKeyword
 	public void closeWindow() {
 		webDriverCache.getCurrent().close();
+		invalidateDocumentCaches();
 	}
 
 	/**
@@ -653,6 +921,7 @@ public class BrowserManagement extends RunOnFailureKeywordsAdapter {
 		logging.info(String.format("Selecting frame '%s'.", locator));
 		List<WebElement> elements = element.elementFind(locator, true, true);
 		webDriverCache.getCurrent().switchTo().frame(elements.get(0));
+		invalidateDocumentCaches();
 	}
 
 	@RobotKeywordOverload
@@ -732,6 +1001,7 @@ public class BrowserManagement extends RunOnFailureKeywordsAdapter {
 	@ArgumentNames({ "locator=NONE" })
 	public void selectWindow(String locator) {
 		WindowManager.select(webDriverCache.getCurrent(), locator);
+		invalidateDocumentCaches();
 	}
 
 	/**
@@ -740,6 +1010,7 @@ public class BrowserManagement extends RunOnFailureKeywordsAdapter {
 	@RobotKeyword
 	public void unselectFrame() {
 		webDriverCache.getCurrent().switchTo().defaultContent();
+		invalidateDocumentCaches();
 	}
 
 	/**
@@ -963,6 +1234,7 @@ public class BrowserManagement extends RunOnFailureKeywordsAdapter {
 	@RobotKeyword
 	public void goBack() {
 		webDriverCache.getCurrent().navigate().back();
+		invalidateDocumentCaches();
 	}
 
 	/**
@@ -976,6 +1248,7 @@ public class BrowserManagement extends RunOnFailureKeywordsAdapter {
 	public void goTo(String url) {
 		logging.info(String.format("Opening url '%s'", url));
 		webDriverCache.getCurrent().get(url);
+		invalidateDocumentCaches();
 	}
 
 	/**
@@ -984,6 +1257,7 @@ public class BrowserManagement extends RunOnFailureKeywordsAdapter {
 	@RobotKeyword
 	public void reloadPage() {
 		webDriverCache.getCurrent().navigate().refresh();
+		invalidateDocumentCaches();
 	}
 
 	/**
@@ -1324,6 +1598,19 @@ public class BrowserManagement extends RunOnFailureKeywordsAdapter {
 	// Internal Methods
 	// ##############################
 
+	/**
+	 * Forget everything memorized about the document shown by the current
+	 * browser instance. Called by all keywords that might load another
+	 * document or switch to another window.
+	 */
+	protected void invalidateDocumentCaches() {
+		ElementFinder.invalidateBaseUrl(webDriverCache.getCurrent());
+		ElementCache.invalidate(webDriverCache.getCurrent());
+		if (networkMonitorEnabled) {
+			NetworkMonitor.install(webDriverCache.getCurrent());
+		}
+	}
+
 	protected String getUserFromURL(URL url) {
 		String auth = url.getUserInfo();
 		int index = auth.indexOf(':');
@@ -1342,6 +1629,29 @@ public class BrowserManagement extends RunOnFailureKeywordsAdapter {
 		return auth.substring(index + 1);
 	}
 
+	protected WebDriver leaseOrCreateWebDriver(final String browserName, final String desiredCapabilitiesString,
+			final String remoteUrlString, final String browserOptions) throws Exception {
+		WebDriverPool webDriverPool = webDriverCache.getWebDriverPool();
+		if (webDriverPool == null) {
+			return createWebDriver(browserName, desiredCapabilitiesString, remoteUrlString, browserOptions);
+		}
+
+		String key = String.format("%s|%s|%s|%s", browserName.toLowerCase().replace(" ", ""),
+				desiredCapabilitiesString, remoteUrlString, browserOptions);
+		WebDriver webDriver = webDriverPool.lease(key, new WebDriverPool.Factory() {
+
+			@Override
+			public WebDriver create() throws Exception {
+				return createWebDriver(browserName, desiredCapabilitiesString, remoteUrlString, browserOptions);
+			}
+		});
+
+		// The timeouts might have changed since the browser was started
+		webDriver.manage().timeouts().setScriptTimeout((int) (timeout * 1000.0), TimeUnit.MILLISECONDS);
+		webDriver.manage().timeouts().implicitlyWait((int) (implicitWait * 1000.0), TimeUnit.MILLISECONDS);
+		return webDriver;
+	}
+
 	protected WebDriver createWebDriver(String browserName, String desiredCapabilitiesString, String remoteUrlString,
 			String browserOptions) throws MalformedURLException {
 		browserName = browserName.toLowerCase().replace(" ", "");
@@ -20,6 +20,7 @@ import org.robotframework.javalib.annotation.RobotKeywords;
 
 import com.github.markusbernhardt.selenium2library.RunOnFailureKeywordsAdapter;
 import com.github.markusbernhardt.selenium2library.Selenium2LibraryNonFatalException;
+import com.github.markusbernhardt.selenium2library.locators.ElementCache;
 import com.github.markusbernhardt.selenium2library.locators.ElementFinder;
 import com.github.markusbernhardt.selenium2library.utils.Python;
 
@@ -916,6 +917,7 @@ public class Element extends RunOnFailureKeywordsAdapter {
 		List<WebElement> elements = elementFind(locator, true, true);
 
 		elements.get(0).click();
+		browserManagement.invalidateDocumentCaches();
 	}
 
 	/**
@@ -948,6 +950,7 @@ public class Element extends RunOnFailureKeywordsAdapter {
 		WebElement element = elements.get(0);
 		Actions action = new Actions(browserManagement.getCurrentWebDriver());
 		action.moveToElement(element).moveByOffset(Integer.parseInt(xOffset), Integer.parseInt(yOffset)).perform();
+		browserManagement.invalidateDocumentCaches();
 	}
 
 	/**
@@ -968,6 +971,7 @@ public class Element extends RunOnFailureKeywordsAdapter {
 		Actions action = new Actions(browserManagement.getCurrentWebDriver());
 
 		action.doubleClick(elements.get(0)).perform();
+		browserManagement.invalidateDocumentCaches();
 	}
 
 	/**
@@ -1272,6 +1276,7 @@ public class Element extends RunOnFailureKeywordsAdapter {
 		List<WebElement> elements = elementFind(locator, true, true, "a");
 
 		elements.get(0).click();
+		browserManagement.invalidateDocumentCaches();
 	}
 
 	/**
@@ -1403,6 +1408,7 @@ public class Element extends RunOnFailureKeywordsAdapter {
 		}
 		WebElement element = elements.get(0);
 		element.click();
+		browserManagement.invalidateDocumentCaches();
 	}
 
 	/**
@@ -1563,6 +1569,129 @@ public class Element extends RunOnFailureKeywordsAdapter {
 				logLevel);
 	}
 
+	// ##############################
+	// Keywords - Batch Lookups
+	// ##############################
+
+	/**
+	 * Returns the elements found for each of the given <b>locators</b>.<br>
+	 * <br>
+	 * All locators using the strategies css, xpath, id, name, identifier, tag,
+	 * jquery and sizzle or the default strategy without key attributes of
+	 * special element types are resolved with a single call to the browser.
+	 * All other locators are resolved one by one. See `Introduction` for
+	 * details about locators.<br>
+	 * <br>
+	 * Example:
+	 * <table border="1" cellspacing="0" summary="">
+	 * <tr>
+	 * <td>${elements}=</td>
+	 * <td>Find Elements Batch</td>
+	 * <td>id=header</td>
+	 * <td>css=.row</td>
+	 * <td>xpath=//footer</td>
+	 * </tr>
+	 * </table>
+	 * 
+	 * @param locators
+	 *            The locators to resolve.
+	 * @return The list of found elements per locator.
+	 * 
+	 * @see Element#pageShouldContainElements
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "*locators" })
+	public List<List<WebElement>> findElementsBatch(String... locators) {
+		return ElementFinder.findBatch(browserManagement.getCurrentWebDriver(), Arrays.asList(locators));
+	}
+
+	/**
+	 * Verify the current page contains elements for each of the given
+	 * <b>locators</b>.<br>
+	 * <br>
+	 * The locators are counted in a batch like in `Find Elements Batch`. Fails
+	 * with a list of all locators, that did not match any element.<br>
+	 * 
+	 * @param locators
+	 *            The locators to verify.
+	 * 
+	 * @see Element#findElementsBatch
+	 * @see Element#pageShouldContainElement
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "*locators" })
+	public void pageShouldContainElements(String... locators) {
+		List<Integer> counts = ElementFinder.countBatch(browserManagement.getCurrentWebDriver(),
+				Arrays.asList(locators));
+		List<String> missing = new ArrayList<String>();
+		for (int i = 0; i < locators.length; i++) {
+			if (counts.get(i) == 0) {
+				missing.add(locators[i]);
+			}
+		}
+
+		if (missing.size() != 0) {
+			throw new Selenium2LibraryNonFatalException(String.format(
+					"Page should have contained elements for the locators '%s' but did not.",
+					Python.join("', '", missing)));
+		}
+		logging.info(String.format("Current page contains elements for all %d locators.", locators.length));
+	}
+
+	// ##############################
+	// Keywords - Element Cache
+	// ##############################
+
+	/**
+	 * Enables the element cache.<br>
+	 * <br>
+	 * While enabled, keywords acting on a single element remember the element
+	 * found for a locator and reuse it in the following keywords, instead of
+	 * searching it again. The cache of a browser instance is cleared, whenever
+	 * a keyword navigates, clicks, submits, executes JavaScript or switches the
+	 * window or frame. If a remembered element went stale nevertheless, the
+	 * cache is cleared. Keywords only reading from the page, i.e. the Get ...
+	 * keywords like `Get Text` and the ... Should ... keywords like `Element
+	 * Should Be Visible`, are retried once then. All other keywords, e.g.
+	 * `Click Element` or `Input Text`, fail, as they might have acted on the
+	 * page already.<br>
+	 * <br>
+	 * Keywords that check the presence or count of elements never use the
+	 * cache.<br>
+	 * 
+	 * @see Element#disableElementCache
+	 * @see Element#clearElementCache
+	 */
+	@RobotKeyword
+	public void enableElementCache() {
+		ElementCache.setEnabled(true);
+	}
+
+	/**
+	 * Disables and clears the element cache.<br>
+	 * 
+	 * @see Element#enableElementCache
+	 * @see Element#clearElementCache
+	 */
+	@RobotKeyword
+	public void disableElementCache() {
+		ElementCache.setEnabled(false);
+	}
+
+	/**
+	 * Forgets all elements remembered by the element cache.<br>
+	 * <br>
+	 * Use this keyword after the page changed in a way, the element cache
+	 * cannot notice, e.g. after the application replaced parts of the DOM.<br>
+	 * 
+	 * @see Element#enableElementCache
+	 * @see Element#disableElementCache
+	 */
+	@RobotKeyword
+	public void clearElementCache() {
+		ElementCache.clearAll();
+	}
+
 	// ##############################
 	// Internal Methods
 	// ##############################
@@ -1572,7 +1701,21 @@ public class Element extends RunOnFailureKeywordsAdapter {
 	}
 
 	protected List<WebElement> elementFind(String locator, boolean firstOnly, boolean required, String tag) {
-		List<WebElement> elements = ElementFinder.find(browserManagement.getCurrentWebDriver(), locator, tag);
+		WebDriver webDriver = browserManagement.getCurrentWebDriver();
+
+		// Only lookups of a single element to act on are cached. Lookups that
+		// tolerate no match are checks, that have to see the current DOM.
+		boolean cacheable = firstOnly && required && ElementCache.isEnabled();
+		if (cacheable) {
+			WebElement cachedElement = ElementCache.get(webDriver, locator, tag);
+			if (cachedElement != null) {
+				List<WebElement> elements = new ArrayList<WebElement>();
+				elements.add(cachedElement);
+				return elements;
+			}
+		}
+
+		List<WebElement> elements = ElementFinder.find(webDriver, locator, tag);
 
 		if (required && elements.size() == 0) {
 			throw new Selenium2LibraryNonFatalException(
@@ -1587,6 +1730,9 @@ public class Element extends RunOnFailureKeywordsAdapter {
 			}
 		}
 
+		if (cacheable) {
+			ElementCache.put(webDriver, locator, tag, elements.get(0));
+		}
 		return elements;
 	}
 
@@ -1598,6 +1744,7 @@ public class Element extends RunOnFailureKeywordsAdapter {
 		logging.info(String.format("Searching for text from frame '%s'.", locator));
 		boolean found = isTextPresent(text);
 		current.switchTo().defaultContent();
+		browserManagement.invalidateDocumentCaches();
 
 		return found;
 	}
@@ -1681,6 +1828,7 @@ public class Element extends RunOnFailureKeywordsAdapter {
 	protected boolean pageContains(String text) {
 		WebDriver current = browserManagement.getCurrentWebDriver();
 		current.switchTo().defaultContent();
+		browserManagement.invalidateDocumentCaches();
 
 		if (isTextPresent(text)) {
 			return true;
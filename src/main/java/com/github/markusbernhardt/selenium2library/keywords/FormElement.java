@@ -16,6 +16,12 @@ import com.github.markusbernhardt.selenium2library.Selenium2LibraryNonFatalExcep
 @RobotKeywords
 public class FormElement extends RunOnFailureKeywordsAdapter {
 
+	/**
+	 * Instantiated BrowserManagement keyword bean
+	 */
+	@Autowired
+	protected BrowserManagement browserManagement;
+
 	/**
 	 * Instantiated Element keyword bean
 	 */
@@ -57,6 +63,7 @@ public class FormElement extends RunOnFailureKeywordsAdapter {
 		}
 		List<WebElement> webElements = element.elementFind(locator, true, true, "form");
 		webElements.get(0).submit();
+		browserManagement.invalidateDocumentCaches();
 	}
 
 	/**
@@ -785,6 +792,7 @@ public class FormElement extends RunOnFailureKeywordsAdapter {
 			elements = element.elementFind(locator, true, true, "button");
 		}
 		elements.get(0).click();
+		browserManagement.invalidateDocumentCaches();
 	}
 
 	@RobotKeywordOverload
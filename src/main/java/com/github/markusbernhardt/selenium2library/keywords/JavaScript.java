@@ -229,7 +229,11 @@ public class JavaScript extends RunOnFailureKeywordsAdapter {
 	public Object executeJavascript(String... code) {
 		String js = getJavascriptToExecute(Python.join("", Arrays.asList(code)));
 		String.format("Executing JavaScript:\n%s", js);
-		return ((JavascriptExecutor) browserManagement.getCurrentWebDriver()).executeScript(js);
+		try {
+			return ((JavascriptExecutor) browserManagement.getCurrentWebDriver()).executeScript(js);
+		} finally {
+			browserManagement.invalidateDocumentCaches();
+		}
 	}
 
 	/**
@@ -272,7 +276,11 @@ public class JavaScript extends RunOnFailureKeywordsAdapter {
 	public Object executeAsyncJavascript(String... code) {
 		String js = getJavascriptToExecute(Python.join("", Arrays.asList(code)));
 		String.format("Executing JavaScript:\n%s", js);
-		return ((JavascriptExecutor) browserManagement.getCurrentWebDriver()).executeAsyncScript(js);
+		try {
+			return ((JavascriptExecutor) browserManagement.getCurrentWebDriver()).executeAsyncScript(js);
+		} finally {
+			browserManagement.invalidateDocumentCaches();
+		}
 	}
 
 	/**
@@ -1,8 +1,6 @@
 package com.github.markusbernhardt.selenium2library.keywords;
 
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,6 +15,7 @@ import org.robotframework.javalib.annotation.RobotKeywords;
 
 import com.github.markusbernhardt.selenium2library.RunOnFailureKeywordsAdapter;
 import com.github.markusbernhardt.selenium2library.Selenium2LibraryNonFatalException;
+import com.github.markusbernhardt.selenium2library.utils.RobotLogger;
 
 @RobotKeywords
 public class Logging extends RunOnFailureKeywordsAdapter {
@@ -27,7 +26,7 @@ public class Logging extends RunOnFailureKeywordsAdapter {
 	static {
 		VALID_LOG_LEVELS = new HashMap<String, String[]>();
 		VALID_LOG_LEVELS.put("debug", new String[] { "debug", "" });
-		VALID_LOG_LEVELS.put("html", new String[] { "info", ", True, False" });
+		VALID_LOG_LEVELS.put("html", new String[] { "info", "html" });
 		VALID_LOG_LEVELS.put("info", new String[] { "info", "" });
 		VALID_LOG_LEVELS.put("trace", new String[] { "trace", "" });
 		VALID_LOG_LEVELS.put("warn", new String[] { "warn", "" });
@@ -337,33 +336,7 @@ public class Logging extends RunOnFailureKeywordsAdapter {
 	}
 
 	protected void log0(String msg, String methodName, String methodArguments) {
-		if (msg.length() > 1024) {
-			// Message is too large.
-			// There is a hard limit of 100k in the Jython source code parser
-			try {
-				// Write message to temp file
-				File tempFile = File.createTempFile("Selenium2Library-", ".log");
-				tempFile.deleteOnExit();
-				FileWriter writer = new FileWriter(tempFile);
-				writer.write(msg);
-				writer.close();
-
-				// Read the message in Python back and log it.
-				loggingPythonInterpreter.get().exec(
-						String.format("from __future__ import with_statement\n" + "\n"
-								+ "with open('%s', 'r') as msg_file:\n" + "    msg = msg_file.read()\n"
-								+ "    logger.%s(msg%s)", tempFile.getAbsolutePath().replace("\\", "\\\\"), methodName,
-								methodArguments));
-
-			} catch (IOException e) {
-				throw new Selenium2LibraryNonFatalException("Error in handling temp file for long log message.", e);
-			}
-		} else {
-			// Message is small enough to get parsed by Jython
-			loggingPythonInterpreter.get().exec(
-					String.format("logger.%s('%s'%s)", methodName, msg.replace("\\", "\\\\").replace("'", "\\'")
-							.replace("\n", "\\n"), methodArguments));
-		}
+		RobotLogger.log(methodName, msg, "html".equals(methodArguments));
 	}
 
 	protected File getLogDir() {
@@ -0,0 +1,152 @@
+package com.github.markusbernhardt.selenium2library.keywords;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.robotframework.javalib.annotation.ArgumentNames;
+import org.robotframework.javalib.annotation.Autowired;
+import org.robotframework.javalib.annotation.RobotKeyword;
+import org.robotframework.javalib.annotation.RobotKeywordOverload;
+import org.robotframework.javalib.annotation.RobotKeywords;
+
+import com.github.markusbernhardt.selenium2library.RunOnFailureKeywordsAdapter;
+import com.github.markusbernhardt.selenium2library.utils.FileHelper;
+import com.github.markusbernhardt.selenium2library.utils.PerformanceStatistics;
+import com.github.markusbernhardt.selenium2library.utils.TimingCommandExecutor;
+import com.github.markusbernhardt.selenium2library.utils.WebDriverCache.SessionIdAliasWebDriverTuple;
+
+@RobotKeywords
+public class Performance extends RunOnFailureKeywordsAdapter {
+
+	/**
+	 * The file the statistics are written to by `Close All Browsers` or null
+	 */
+	protected volatile String statisticsFile = null;
+
+	/**
+	 * Instantiated BrowserManagement keyword bean
+	 */
+	@Autowired
+	protected BrowserManagement browserManagement;
+
+	/**
+	 * Instantiated Logging keyword bean
+	 */
+	@Autowired
+	protected Logging logging;
+
+	// ##############################
+	// Keywords
+	// ##############################
+
+	@RobotKeywordOverload
+	public void enablePerformanceStatistics() {
+		enablePerformanceStatistics(null);
+	}
+
+	/**
+	 * Enables recording the latencies of the keywords and of the commands sent
+	 * to the browsers.<br>
+	 * <br>
+	 * For each Selenium2Library keyword called by Robot Framework the duration
+	 * (type keyword) and the time not spent waiting for the browser (type
+	 * overhead) are recorded. For each command sent to a browser the duration
+	 * of the round trip is recorded (type command). Commands are recorded for
+	 * all browsers except HtmlUnit. The time Robot Framework needs to call a
+	 * keyword of this library is the difference between the keyword times in
+	 * the log and the keyword times recorded here.<br>
+	 * <br>
+	 * If a <b>statisticsFile</b> is given, the statistics are written to it by
+	 * `Close All Browsers` and `Disable Performance Statistics`. The file is
+	 * written as JSON, if its name ends with .json, and as CSV otherwise. The
+	 * filename is considered relative to the directory of the Robot Framework
+	 * log file, if it is not given in absolute format.<br>
+	 *
+	 * @param statisticsFile
+	 *            Default=NONE. The file to write the statistics to.
+	 *
+	 * @see Performance#getPerformanceStatistics
+	 * @see Performance#disablePerformanceStatistics
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "statisticsFile=NONE" })
+	public void enablePerformanceStatistics(String statisticsFile) {
+		this.statisticsFile = statisticsFile;
+		PerformanceStatistics.enable();
+		for (SessionIdAliasWebDriverTuple sessionIdAliasWebDriverTuple : browserManagement.getWebDriverCache()
+				.getWebDrivers()) {
+			TimingCommandExecutor.install(sessionIdAliasWebDriverTuple.webDriver);
+		}
+	}
+
+	/**
+	 * Disables recording the latencies and writes the statistics file, if
+	 * given.
+	 *
+	 * @see Performance#enablePerformanceStatistics
+	 */
+	@RobotKeyword
+	public void disablePerformanceStatistics() {
+		writeStatisticsFile();
+		PerformanceStatistics.disable();
+		statisticsFile = null;
+	}
+
+	/**
+	 * Drops the latencies recorded so far.
+	 *
+	 * @see Performance#enablePerformanceStatistics
+	 */
+	@RobotKeyword
+	public void resetPerformanceStatistics() {
+		if (PerformanceStatistics.disable() != null) {
+			PerformanceStatistics.enable();
+		}
+	}
+
+	/**
+	 * Logs and returns the latencies recorded, the largest total time first:
+	 * Count, total, mean, minimum and maximum time and the estimated 50th,
+	 * 90th and 99th percentile per keyword and command.<br>
+	 *
+	 * @return The performance statistics.
+	 *
+	 * @see Performance#enablePerformanceStatistics
+	 */
+	@RobotKeyword
+	public String getPerformanceStatistics() {
+		PerformanceStatistics performanceStatistics = PerformanceStatistics.get();
+		String statistics = performanceStatistics != null ? performanceStatistics.toString()
+				: "Performance statistics disabled";
+		logging.info(statistics);
+		return statistics;
+	}
+
+	// ##############################
+	// Internal Methods
+	// ##############################
+
+	/**
+	 * Writes the statistics to the statistics file, if enabled and given.
+	 */
+	public void writeStatisticsFile() {
+		PerformanceStatistics performanceStatistics = PerformanceStatistics.get();
+		String statisticsFile = this.statisticsFile;
+		if (performanceStatistics == null || statisticsFile == null) {
+			return;
+		}
+
+		File path = new File(statisticsFile.replace('/', File.separatorChar));
+		if (!path.isAbsolute()) {
+			path = new File(logging.getLogDir(), path.getPath());
+		}
+		String content = statisticsFile.toLowerCase().endsWith(".json") ? performanceStatistics.toJson()
+				: performanceStatistics.toCsv();
+		try {
+			FileHelper.write(path, content.getBytes("UTF-8"));
+			logging.info(String.format("Performance statistics written to '%s'", path.getAbsolutePath()));
+		} catch (IOException e) {
+			logging.warn(String.format("Can't write performance statistics '%s'", path.getAbsolutePath()));
+		}
+	}
+}
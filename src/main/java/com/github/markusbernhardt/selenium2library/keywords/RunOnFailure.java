@@ -1,12 +1,22 @@
 package com.github.markusbernhardt.selenium2library.keywords;
 
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
 import org.python.util.PythonInterpreter;
 import org.robotframework.javalib.annotation.ArgumentNames;
 import org.robotframework.javalib.annotation.Autowired;
 import org.robotframework.javalib.annotation.RobotKeyword;
+import org.robotframework.javalib.annotation.RobotKeywordOverload;
 import org.robotframework.javalib.annotation.RobotKeywords;
 
 import com.github.markusbernhardt.selenium2library.RunOnFailureKeywordsAdapter;
+import com.github.markusbernhardt.selenium2library.utils.FailureCaptureBuffer;
+import com.github.markusbernhardt.selenium2library.utils.FailureCaptureBuffer.Snapshot;
 
 @RobotKeywords
 public class RunOnFailure extends RunOnFailureKeywordsAdapter {
@@ -21,12 +31,29 @@ public class RunOnFailure extends RunOnFailureKeywordsAdapter {
 	 */
 	protected boolean runningOnFailureRoutine;
 
+	/**
+	 * Captures snapshots instead of running the keyword, if enabled
+	 */
+	protected volatile FailureCaptureBuffer failureCaptureBuffer = null;
+
 	/**
 	 * Instantiated Logging keyword bean
 	 */
 	@Autowired
 	protected Logging logging;
 
+	/**
+	 * Instantiated BrowserManagement keyword bean
+	 */
+	@Autowired
+	protected BrowserManagement browserManagement;
+
+	/**
+	 * Instantiated Screenshot keyword bean
+	 */
+	@Autowired
+	protected Screenshot screenshot;
+
 	// ##############################
 	// Keywords
 	// ##############################
@@ -90,6 +117,73 @@ public class RunOnFailure extends RunOnFailureKeywordsAdapter {
 		return oldKeywordText;
 	}
 
+	@RobotKeywordOverload
+	public void enableFailureCapture() {
+		enableFailureCapture("5");
+	}
+
+	@RobotKeywordOverload
+	public void enableFailureCapture(String size) {
+		enableFailureCapture(size, "False");
+	}
+
+	/**
+	 * Enables capturing snapshots on failure instead of running the keyword
+	 * registered with `Register Keyword To Run On Failure`.<br>
+	 * <br>
+	 * When a Selenium2Library keyword fails, the URL and the title of the
+	 * current page and optionally a screenshot are kept in memory. Only the
+	 * last <b>size</b> snapshots are kept. When a keyword called directly by a
+	 * test or by a suite setup or teardown fails, the snapshots are written to
+	 * its log, i.e. into the log of the failed test. At the end of the test
+	 * the remaining snapshots are dropped. So failures that are expected, e.g.
+	 * inside `BuiltIn.Run Keyword And Ignore Error` or while retrying, cost
+	 * almost nothing.<br>
+	 * <br>
+	 * Screenshots are written with the options set by `Set Screenshot
+	 * Options`. Taking a screenshot is the expensive part of a snapshot.<br>
+	 * <br>
+	 * Example:
+	 * <table border="1" cellspacing="0" summary="">
+	 * <tr>
+	 * <td>Enable Failure Capture</td>
+	 * <td>3</td>
+	 * <td>True</td>
+	 * <td># Keep the last 3 snapshots with screenshots</td>
+	 * </tr>
+	 * </table>
+	 * 
+	 * @param size
+	 *            Default=5. The number of snapshots to keep.
+	 * @param screenshots
+	 *            Default=False. Take a screenshot with each snapshot.
+	 * 
+	 * @see RunOnFailure#disableFailureCapture
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "size=5", "screenshots=False" })
+	public void enableFailureCapture(String size, String screenshots) {
+		failureCaptureBuffer = new FailureCaptureBuffer(Integer.parseInt(size.trim()),
+				Boolean.parseBoolean(screenshots.trim()));
+	}
+
+	/**
+	 * Disables capturing snapshots on failure and runs the keyword registered
+	 * with `Register Keyword To Run On Failure` again. Snapshots not yet
+	 * written are dropped.
+	 * 
+	 * @see RunOnFailure#enableFailureCapture
+	 */
+	@RobotKeyword
+	public void disableFailureCapture() {
+		FailureCaptureBuffer oldFailureCaptureBuffer = failureCaptureBuffer;
+		failureCaptureBuffer = null;
+		if (oldFailureCaptureBuffer != null) {
+			oldFailureCaptureBuffer.clear();
+			logging.info(String.format("Failure capture: %s", oldFailureCaptureBuffer));
+		}
+	}
+
 	// ##############################
 	// Internal Methods
 	// ##############################
@@ -105,10 +199,15 @@ public class RunOnFailure extends RunOnFailureKeywordsAdapter {
 	};
 
 	public void runOnFailure() {
-		if (runOnFailureKeyword == null) {
+		if (runningOnFailureRoutine) {
 			return;
 		}
-		if (runningOnFailureRoutine) {
+		FailureCaptureBuffer failureCaptureBuffer = this.failureCaptureBuffer;
+		if (failureCaptureBuffer != null) {
+			captureSnapshot(failureCaptureBuffer);
+			return;
+		}
+		if (runOnFailureKeyword == null) {
 			return;
 		}
 		if(runOnFailurePythonInterpreter.get().eval("EXECUTION_CONTEXTS.current").toString().equals("None")) {
@@ -127,4 +226,57 @@ public class RunOnFailure extends RunOnFailureKeywordsAdapter {
 		}
 	}
 
+	/**
+	 * Writes the captured snapshots to the log. Called at the end of a failed
+	 * keyword called directly by a test or by a suite setup or teardown.
+	 */
+	public void persistFailureCaptures() {
+		FailureCaptureBuffer failureCaptureBuffer = this.failureCaptureBuffer;
+		if (failureCaptureBuffer == null) {
+			return;
+		}
+		List<Snapshot> snapshots = failureCaptureBuffer.drain();
+		SimpleDateFormat dateFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+		for (int i = 0; i < snapshots.size(); i++) {
+			Snapshot snapshot = snapshots.get(i);
+			logging.info(String.format("Failure %d of %d at %s on page '%s' with title '%s'", i + 1,
+					snapshots.size(), dateFormat.format(new Date(snapshot.getTime())), snapshot.getUrl(),
+					snapshot.getTitle()));
+			if (snapshot.getBase64Png() != null) {
+				screenshot.writeScreenshot(null, "selenium-failure-screenshot", snapshot.getBase64Png(),
+						screenshot.screenshotOptions, null);
+			}
+		}
+	}
+
+	/**
+	 * Drops the captured snapshots. Called at the end of each test and suite.
+	 */
+	public void clearFailureCaptures() {
+		FailureCaptureBuffer failureCaptureBuffer = this.failureCaptureBuffer;
+		if (failureCaptureBuffer != null) {
+			failureCaptureBuffer.clear();
+		}
+	}
+
+	protected void captureSnapshot(FailureCaptureBuffer failureCaptureBuffer) {
+		runningOnFailureRoutine = true;
+		try {
+			WebDriver webDriver = browserManagement.getCurrentWebDriver();
+			if (webDriver == null) {
+				failureCaptureBuffer.add(new Snapshot(null, null, null));
+				return;
+			}
+			String base64Png = null;
+			if (failureCaptureBuffer.isScreenshots() && webDriver instanceof TakesScreenshot) {
+				base64Png = ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BASE64);
+			}
+			failureCaptureBuffer.add(new Snapshot(webDriver.getCurrentUrl(), webDriver.getTitle(), base64Png));
+		} catch (RuntimeException r) {
+			logging.debug(String.format("Can't capture snapshot on failure%s",
+					r.getMessage() != null ? " '" + r.getMessage() + "'" : ""));
+		} finally {
+			runningOnFailureRoutine = false;
+		}
+	}
 }
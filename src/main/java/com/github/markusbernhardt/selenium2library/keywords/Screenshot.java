@@ -3,9 +3,17 @@ package com.github.markusbernhardt.selenium2library.keywords;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
 import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
 import org.robotframework.javalib.annotation.ArgumentNames;
 import org.robotframework.javalib.annotation.Autowired;
 import org.robotframework.javalib.annotation.RobotKeyword;
@@ -13,7 +21,12 @@ import org.robotframework.javalib.annotation.RobotKeywordOverload;
 import org.robotframework.javalib.annotation.RobotKeywords;
 
 import com.github.markusbernhardt.selenium2library.RunOnFailureKeywordsAdapter;
+import com.github.markusbernhardt.selenium2library.Selenium2LibraryNonFatalException;
 import com.github.markusbernhardt.selenium2library.utils.Robotframework;
+import com.github.markusbernhardt.selenium2library.utils.ScreenshotHashIndex;
+import com.github.markusbernhardt.selenium2library.utils.ScreenshotOptions;
+import com.github.markusbernhardt.selenium2library.utils.ScreenshotRegion;
+import com.github.markusbernhardt.selenium2library.utils.ScreenshotWriter;
 
 @RobotKeywords
 public class Screenshot extends RunOnFailureKeywordsAdapter {
@@ -30,6 +43,34 @@ public class Screenshot extends RunOnFailureKeywordsAdapter {
 	@Autowired
 	protected Logging logging;
 
+	/**
+	 * Instantiated Element keyword bean
+	 */
+	@Autowired
+	protected Element element;
+
+	/**
+	 * Writes the screenshots in the background, if enabled
+	 */
+	protected volatile ScreenshotWriter screenshotWriter = null;
+
+	/**
+	 * Encodes and writes the screenshots, that need encoding, in the
+	 * background, if asynchronous screenshots are disabled. Created on first
+	 * use.
+	 */
+	protected ScreenshotWriter encodingWriter = null;
+
+	/**
+	 * The default options of the screenshots
+	 */
+	protected volatile ScreenshotOptions screenshotOptions = ScreenshotOptions.DEFAULT;
+
+	/**
+	 * The screenshots written by their content hash
+	 */
+	protected final ScreenshotHashIndex screenshotHashIndex = new ScreenshotHashIndex();
+
 	// ##############################
 	// Keywords
 	// ##############################
@@ -38,29 +79,66 @@ public class Screenshot extends RunOnFailureKeywordsAdapter {
 		capturePageScreenshot(null);
 	}
 
+	@RobotKeywordOverload
+	public void capturePageScreenshot(String filename) {
+		capturePageScreenshot(filename, null);
+	}
+
 	/**
 	 * Take a screenshot of the current page and embed it into the log.<br>
 	 * <br>
 	 * The <b>filename</b> argument specifies the name of the file to write the
 	 * screenshot into. If no filename is given, the screenshot is saved into
-	 * file selenium-screenshot-&lt;counter&gt;.png under the directory where
-	 * the Robot Framework log file is written into. The filename is also
-	 * considered relative to the same directory, if it is not given in absolute
-	 * format.<br>
+	 * file selenium-screenshot-&lt;counter&gt;.png (or .jpg) under the
+	 * directory where the Robot Framework log file is written into. The
+	 * filename is also considered relative to the same directory, if it is not
+	 * given in absolute format.<br>
 	 * <br>
 	 * A CSS can be used to modify how the screenshot is taken. By default the
 	 * background color is changed to avoid possible problems with background
 	 * leaking when the page layout is somehow broken.<br>
+	 * <br>
+	 * The <b>options</b> argument overrides the screenshot options set with
+	 * `Set Screenshot Options` for this screenshot. With a thumbnail, the
+	 * thumbnail is embedded into the log and links to the screenshot.<br>
+	 * <br>
+	 * With `Enable Async Screenshots` the screenshot is written in the
+	 * background. Screenshots, that have to be converted, scaled down or need
+	 * a thumbnail, are always written in the background. The link in the log
+	 * already points to the final file.<br>
+	 * <br>
+	 * If no filename is given and the page looks exactly like in a screenshot
+	 * taken before, the log links to the existing file instead of writing a
+	 * new one. See `Get Screenshot Statistics`.<br>
+	 * <br>
+	 * Examples:
+	 * <table border="1" cellspacing="0" summary="">
+	 * <tr>
+	 * <td>Capture Page Screenshot</td>
+	 * <td></td>
+	 * <td></td>
+	 * </tr>
+	 * <tr>
+	 * <td>Capture Page Screenshot</td>
+	 * <td>login.jpg</td>
+	 * <td>format=jpeg:75, maxWidth=1280, thumbnail=320</td>
+	 * </tr>
+	 * </table>
 	 * 
 	 * @param filename
 	 *            Default=NONE. Name of the file to write.
+	 * @param options
+	 *            Default=NONE. The screenshot options for this screenshot.
+	 * 
+	 * @see Screenshot#setScreenshotOptions
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "filename=NONE" })
-	public void capturePageScreenshot(String filename) {
-		File logdir = logging.getLogDir();
-		File path = new File(logdir, normalizeFilename(filename));
-		String link = Robotframework.getLinkPath(path, logdir);
+	@ArgumentNames({ "filename=NONE", "options=NONE" })
+	public void capturePageScreenshot(String filename, String options) {
+		ScreenshotOptions screenshotOptions = this.screenshotOptions;
+		if (options != null) {
+			screenshotOptions = ScreenshotOptions.parse(options, screenshotOptions);
+		}
 
 		TakesScreenshot takesScreenshot = ((TakesScreenshot) browserManagement.getCurrentWebDriver());
 		if (takesScreenshot == null) {
@@ -68,25 +146,435 @@ public class Screenshot extends RunOnFailureKeywordsAdapter {
 			return;
 		}
 
-		byte[] png = takesScreenshot.getScreenshotAs(OutputType.BYTES);
-		writeScreenshot(path, png);
+		String base64Png = takesScreenshot.getScreenshotAs(OutputType.BASE64);
+		writeScreenshot(filename, "selenium-screenshot", base64Png, screenshotOptions, null);
+	}
+
+	@RobotKeywordOverload
+	public void captureElementScreenshot(String locator) {
+		captureElementScreenshot(locator, null);
+	}
 
-		logging.html(String.format(
-				"</td></tr><tr><td colspan=\"3\"><a href=\"%s\"><img src=\"%s\" width=\"800px\"></a>", link, link));
+	@RobotKeywordOverload
+	public void captureElementScreenshot(String locator, String filename) {
+		captureElementScreenshot(locator, filename, null);
+	}
+
+	/**
+	 * Take a screenshot of the element identified by <b>locator</b> and embed
+	 * it into the log.<br>
+	 * <br>
+	 * If the browser supports screenshots of single elements, only the
+	 * element is transferred. Otherwise the element is cut out of a screenshot
+	 * of the page. The element is scrolled into view, if necessary.<br>
+	 * <br>
+	 * See `Capture Page Screenshot` for the arguments <b>filename</b> and
+	 * <b>options</b>. If no filename is given, the screenshot is saved into
+	 * file selenium-element-screenshot-&lt;counter&gt;.png (or .jpg).<br>
+	 * <br>
+	 * See `Introduction` for details about locators.<br>
+	 * 
+	 * @param locator
+	 *            The locator to locate the element.
+	 * @param filename
+	 *            Default=NONE. Name of the file to write.
+	 * @param options
+	 *            Default=NONE. The screenshot options for this screenshot.
+	 * 
+	 * @see Screenshot#capturePageScreenshot
+	 * @see Screenshot#captureRegionScreenshot
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "locator", "filename=NONE", "options=NONE" })
+	public void captureElementScreenshot(String locator, String filename, String options) {
+		ScreenshotOptions screenshotOptions = this.screenshotOptions;
+		if (options != null) {
+			screenshotOptions = ScreenshotOptions.parse(options, screenshotOptions);
+		}
+
+		WebElement webElement = element.elementFind(locator, true, true).get(0);
+		String base64Png = null;
+		try {
+			base64Png = webElement.getScreenshotAs(OutputType.BASE64);
+		} catch (WebDriverException e) {
+			// No element screenshots, cut it out of the page
+		} catch (UnsupportedOperationException e) {
+			// No element screenshots, cut it out of the page
+		}
+		if (base64Png != null) {
+			writeScreenshot(filename, "selenium-element-screenshot", base64Png, screenshotOptions, null);
+			return;
+		}
+
+		WebDriver webDriver = browserManagement.getCurrentWebDriver();
+		ScreenshotRegion region = getRegion(webDriver, webElement, null);
+		base64Png = ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BASE64);
+		writeScreenshot(filename, "selenium-element-screenshot", base64Png, screenshotOptions, region);
+	}
+
+	@RobotKeywordOverload
+	public void captureRegionScreenshot(String x, String y, String width, String height) {
+		captureRegionScreenshot(x, y, width, height, null);
+	}
+
+	@RobotKeywordOverload
+	public void captureRegionScreenshot(String x, String y, String width, String height, String filename) {
+		captureRegionScreenshot(x, y, width, height, filename, null);
+	}
+
+	/**
+	 * Take a screenshot of a region of the current page and embed it into the
+	 * log.<br>
+	 * <br>
+	 * The region is given in CSS pixels relative to the top left corner of
+	 * the document. It is cut out of a screenshot of the page before it is
+	 * written. The region is scrolled into view, if necessary.<br>
+	 * <br>
+	 * See `Capture Page Screenshot` for the arguments <b>filename</b> and
+	 * <b>options</b>. If no filename is given, the screenshot is saved into
+	 * file selenium-region-screenshot-&lt;counter&gt;.png (or .jpg).<br>
+	 * 
+	 * @param x
+	 *            The left edge of the region.
+	 * @param y
+	 *            The top edge of the region.
+	 * @param width
+	 *            The width of the region.
+	 * @param height
+	 *            The height of the region.
+	 * @param filename
+	 *            Default=NONE. Name of the file to write.
+	 * @param options
+	 *            Default=NONE. The screenshot options for this screenshot.
+	 * 
+	 * @see Screenshot#capturePageScreenshot
+	 * @see Screenshot#captureElementScreenshot
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "x", "y", "width", "height", "filename=NONE", "options=NONE" })
+	public void captureRegionScreenshot(String x, String y, String width, String height, String filename,
+			String options) {
+		ScreenshotOptions screenshotOptions = this.screenshotOptions;
+		if (options != null) {
+			screenshotOptions = ScreenshotOptions.parse(options, screenshotOptions);
+		}
+
+		WebDriver webDriver = browserManagement.getCurrentWebDriver();
+		if (webDriver == null) {
+			logging.warn("Can't take screenshot. No open browser found");
+			return;
+		}
+		ScreenshotRegion region = getRegion(webDriver, null,
+				new double[] { Double.parseDouble(x), Double.parseDouble(y), Double.parseDouble(width),
+						Double.parseDouble(height) });
+		String base64Png = ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BASE64);
+		writeScreenshot(filename, "selenium-region-screenshot", base64Png, screenshotOptions, region);
+	}
+
+	/**
+	 * Sets the default options of the screenshots taken by `Capture Page
+	 * Screenshot`, `Capture Element Screenshot` and `Capture Region
+	 * Screenshot`. The options can also be set when importing the
+	 * library.<br>
+	 * <br>
+	 * The options are given as comma separated list:
+	 * <table border="1" cellspacing="0" summary="">
+	 * <tr>
+	 * <td>format=png</td>
+	 * <td>Lossless PNG as delivered by the browser. The default.</td>
+	 * </tr>
+	 * <tr>
+	 * <td>format=jpeg[:quality]</td>
+	 * <td>JPEG with a quality from 1 to 100 (default 85).</td>
+	 * </tr>
+	 * <tr>
+	 * <td>maxWidth=&lt;pixels&gt;</td>
+	 * <td>Scales wider screenshots down to this width. 0 (the default) keeps
+	 * the original size.</td>
+	 * </tr>
+	 * <tr>
+	 * <td>thumbnail=&lt;pixels&gt;</td>
+	 * <td>Stores an additional thumbnail of this width, which is embedded into
+	 * the log and links to the screenshot. 0 (the default) disables the
+	 * thumbnail.</td>
+	 * </tr>
+	 * </table>
+	 * <br>
+	 * Options not given keep their current value.<br>
+	 * <br>
+	 * Example:
+	 * <table border="1" cellspacing="0" summary="">
+	 * <tr>
+	 * <td>Set Screenshot Options</td>
+	 * <td>format=jpeg:80, maxWidth=1600, thumbnail=400</td>
+	 * </tr>
+	 * </table>
+	 * 
+	 * @param options
+	 *            The screenshot options.
+	 * @return The previous screenshot options.
+	 * 
+	 * @see Screenshot#capturePageScreenshot
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "options" })
+	public String setScreenshotOptions(String options) {
+		String oldOptions = screenshotOptions.toString();
+		screenshotOptions = ScreenshotOptions.parse(options, screenshotOptions);
+		return oldOptions;
+	}
+
+	@RobotKeywordOverload
+	public void enableAsyncScreenshots() {
+		enableAsyncScreenshots("2");
+	}
+
+	/**
+	 * Enables writing all screenshots in the background.<br>
+	 * <br>
+	 * `Capture Page Screenshot` only fetches the screenshot from the browser
+	 * and returns. Decoding and writing the file is done by <b>threads</b>
+	 * background threads. Pending screenshots are written at the latest at the
+	 * end of each suite, by `Close All Browsers` and by `Flush Screenshots`.<br>
+	 * 
+	 * @param threads
+	 *            Default=2. The number of background threads.
+	 * 
+	 * @see Screenshot#disableAsyncScreenshots
+	 * @see Screenshot#flushScreenshots
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "threads=2" })
+	public void enableAsyncScreenshots(String threads) {
+		int threadCount = Integer.parseInt(threads.trim());
+		if (threadCount < 1) {
+			throw new Selenium2LibraryNonFatalException(String.format("Threads %d is less than 1.", threadCount));
+		}
+		disableAsyncScreenshots();
+		synchronized (this) {
+			screenshotWriter = new ScreenshotWriter(threadCount);
+		}
+	}
+
+	/**
+	 * Disables writing the screenshots in the background after all pending
+	 * screenshots are written.
+	 * 
+	 * @see Screenshot#enableAsyncScreenshots
+	 */
+	@RobotKeyword
+	public void disableAsyncScreenshots() {
+		ScreenshotWriter oldScreenshotWriter;
+		synchronized (this) {
+			oldScreenshotWriter = screenshotWriter;
+			screenshotWriter = null;
+		}
+		if (oldScreenshotWriter != null) {
+			warnAll(oldScreenshotWriter.shutdown(DEFAULT_FLUSH_TIMEOUT));
+		}
+	}
+
+	@RobotKeywordOverload
+	public void flushScreenshots() {
+		flushScreenshots("30 seconds");
+	}
+
+	/**
+	 * Waits until all screenshots pending in the background are written.
+	 * Failed writes are reported with a warning.<br>
+	 * 
+	 * @param timeout
+	 *            Default=30 seconds. The maximum time to wait.
+	 * 
+	 * @see Screenshot#enableAsyncScreenshots
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "timeout=30 seconds" })
+	public void flushScreenshots(String timeout) {
+		flush((long) (Robotframework.timestrToSecs(timeout) * 1000.0));
+	}
+
+	/**
+	 * Logs and returns the statistics of the screenshots: How many
+	 * screenshots were written in the background, how many bytes the browser
+	 * delivered and how many bytes were written, and how many duplicate
+	 * screenshots were not written again and how many bytes this saved.<br>
+	 * 
+	 * @return The statistics of the screenshots.
+	 * 
+	 * @see Screenshot#enableAsyncScreenshots
+	 */
+	@RobotKeyword
+	public String getScreenshotStatistics() {
+		ScreenshotWriter screenshotWriter = this.screenshotWriter;
+		ScreenshotWriter encodingWriter;
+		synchronized (this) {
+			encodingWriter = this.encodingWriter;
+		}
+		String statistics = String.format("Writer: %s\nEncoder: %s\nDuplicates: %s",
+				screenshotWriter != null ? screenshotWriter.toString() : "Asynchronous screenshots disabled",
+				encodingWriter != null ? encodingWriter.toString() : "No screenshots encoded",
+				screenshotHashIndex);
+		logging.info(statistics);
+		return statistics;
 	}
 
 	// ##############################
 	// Internal Methods
 	// ##############################
 
+	/**
+	 * Default time to wait for pending screenshots in milliseconds
+	 */
+	public static final long DEFAULT_FLUSH_TIMEOUT = 30000;
+
+	/**
+	 * Number of background threads writing the screenshots by default
+	 */
+	protected static final int DEFAULT_WRITER_THREADS = 2;
+
+	/**
+	 * Waits until all screenshots pending in the background are written.
+	 * 
+	 * @param timeout
+	 *            the maximum time to wait in milliseconds
+	 */
+	public void flush(long timeout) {
+		ScreenshotWriter screenshotWriter = this.screenshotWriter;
+		if (screenshotWriter != null) {
+			warnAll(screenshotWriter.flush(timeout));
+		}
+		ScreenshotWriter encodingWriter;
+		synchronized (this) {
+			encodingWriter = this.encodingWriter;
+		}
+		if (encodingWriter != null) {
+			warnAll(encodingWriter.flush(timeout));
+		}
+	}
+
+	/**
+	 * Returns the background writer for screenshots, that need encoding. This
+	 * is the writer of the asynchronous screenshots, if enabled, and a writer
+	 * of its own otherwise, which does not enable asynchronous screenshots.
+	 */
+	protected synchronized ScreenshotWriter getEncodingWriter() {
+		if (screenshotWriter != null) {
+			return screenshotWriter;
+		}
+		if (encodingWriter == null) {
+			encodingWriter = new ScreenshotWriter(DEFAULT_WRITER_THREADS);
+		}
+		return encodingWriter;
+	}
+
+	/**
+	 * Writes the screenshot into the log directory and embeds it into the log.
+	 * A screenshot without filename, that is identical to a screenshot written
+	 * before with the same options, is not written again.
+	 * 
+	 * @param filename
+	 *            the name of the file to write or null
+	 * @param prefix
+	 *            the prefix of the generated filename
+	 * @param base64Png
+	 *            the screenshot as returned by the web driver
+	 * @param screenshotOptions
+	 *            the options to write the screenshot with
+	 * @param region
+	 *            the region to cut out of the screenshot or null
+	 */
+	protected void writeScreenshot(String filename, String prefix, String base64Png,
+			ScreenshotOptions screenshotOptions, ScreenshotRegion region) {
+		String key = null;
+		if (filename == null) {
+			key = ScreenshotHashIndex.hash(base64Png) + " " + screenshotOptions;
+			if (region != null) {
+				key += " " + region.toKey();
+			}
+			ScreenshotHashIndex.Entry entry = screenshotHashIndex.get(key);
+			if (entry != null) {
+				logging.debug(String.format("Screenshot is identical to '%s'", entry.getPath().getAbsolutePath()));
+				logScreenshot(entry.getPath(), entry.getThumbnailPath());
+				return;
+			}
+		}
+
+		File path = new File(logging.getLogDir(), normalizeFilename(filename, prefix, screenshotOptions.getExtension()));
+		File thumbnailPath = screenshotOptions.hasThumbnail() ? getThumbnailPath(path,
+				screenshotOptions.getExtension()) : null;
+
+		ScreenshotWriter screenshotWriter = this.screenshotWriter;
+		if (screenshotOptions.needsEncoding() || thumbnailPath != null || region != null) {
+			// Never encode on the keyword thread
+			screenshotWriter = getEncodingWriter();
+		}
+		if (screenshotWriter != null) {
+			// Index before submitting, so a failed write always removes it
+			final String indexKey = key;
+			final ScreenshotHashIndex.Entry indexEntry = key != null ? screenshotHashIndex.put(key, path,
+					thumbnailPath, base64Png.length() / 4 * 3) : null;
+			screenshotWriter.submit(path, thumbnailPath, base64Png, screenshotOptions, region, new Runnable() {
+
+				@Override
+				public void run() {
+					if (indexEntry != null) {
+						// Don't link later duplicates to the missing file
+						screenshotHashIndex.remove(indexKey, indexEntry);
+					}
+				}
+			});
+		} else {
+			boolean written = writeScreenshot(path, OutputType.BYTES.convertFromBase64Png(base64Png));
+			if (written && key != null) {
+				screenshotHashIndex.put(key, path, thumbnailPath, base64Png.length() / 4 * 3);
+			}
+		}
+
+		logScreenshot(path, thumbnailPath);
+	}
+
+	protected void logScreenshot(File path, File thumbnailPath) {
+		File logdir = logging.getLogDir();
+		String link = Robotframework.getLinkPath(path, logdir);
+		if (thumbnailPath != null) {
+			logging.html(String.format("</td></tr><tr><td colspan=\"3\"><a href=\"%s\"><img src=\"%s\"></a>", link,
+					Robotframework.getLinkPath(thumbnailPath, logdir)));
+		} else {
+			logging.html(String.format(
+					"</td></tr><tr><td colspan=\"3\"><a href=\"%s\"><img src=\"%s\" width=\"800px\"></a>", link,
+					link));
+		}
+	}
+
+	protected File getThumbnailPath(File path, String extension) {
+		String name = path.getName();
+		int dot = name.lastIndexOf('.');
+		if (dot > 0) {
+			name = name.substring(0, dot);
+		}
+		return new File(path.getParentFile(), String.format("%s-thumbnail.%s", name, extension));
+	}
+
+	protected void warnAll(List<String> failures) {
+		for (String failure : failures) {
+			logging.warn(failure);
+		}
+	}
+
 	protected int screenshotIndex = 0;
 
-	protected void writeScreenshot(File path, byte[] png) {
+	/**
+	 * Writes the screenshot and returns true, if it was written.
+	 */
+	protected boolean writeScreenshot(File path, byte[] png) {
 		FileOutputStream fos = null;
+		boolean written = false;
 		try {
 			fos = new FileOutputStream(path);
 			fos.write(png);
 			fos.flush();
+			written = true;
 		} catch (IOException e) {
 			logging.warn(String.format("Can't write screenshot '%s'", path.getAbsolutePath()));
 		} finally {
@@ -95,15 +583,75 @@ public class Screenshot extends RunOnFailureKeywordsAdapter {
 					fos.close();
 				} catch (IOException e) {
 					logging.warn("Can't even close stream");
+					written = false;
 				}
 			}
 		}
+		return written;
+	}
+
+	/**
+	 * Returns the region of the element or of the given CSS pixel rectangle and
+	 * scrolls it into view, if it is outside of the viewport.
+	 */
+	protected ScreenshotRegion getRegion(WebDriver webDriver, WebElement webElement, double[] rectangle) {
+		if (webDriver instanceof JavascriptExecutor) {
+			try {
+				// Some web drivers reject null arguments, so pass only one
+				Object result = ((JavascriptExecutor) webDriver).executeScript(
+						"var element = arguments[0].nodeType ? arguments[0] : null, r = arguments[0];"
+								+ "function region() {"
+								+ "  var x = window.pageXOffset || 0, y = window.pageYOffset || 0, b;"
+								+ "  if (element) {"
+								+ "    b = element.getBoundingClientRect();"
+								+ "    r = [b.left + x, b.top + y, b.width, b.height];"
+								+ "  }"
+								+ "  return [r[0], r[1], r[2], r[3], x, y, window.innerHeight || 0,"
+								+ "    window.devicePixelRatio || 1];"
+								+ "}"
+								+ "var v = region();"
+								+ "if (v[1] < v[5] || v[1] + v[3] > v[5] + v[6] || v[0] < v[4]) {"
+								+ "  if (element) { element.scrollIntoView(); } else { window.scrollTo(r[0], r[1]); }"
+								+ "  v = region();"
+								+ "}"
+								+ "return v;",
+						webElement != null ? webElement : toList(rectangle));
+				if (result instanceof List<?> && ((List<?>) result).size() == 8) {
+					List<?> values = (List<?>) result;
+					double[] v = new double[8];
+					for (int i = 0; i < 8; i++) {
+						v[i] = values.get(i) instanceof Number ? ((Number) values.get(i)).doubleValue() : 0;
+					}
+					return new ScreenshotRegion(v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7]);
+				}
+			} catch (WebDriverException e) {
+				// Use the location reported by the web driver
+			} catch (UnsupportedOperationException e) {
+				// JavaScript is disabled
+			}
+		}
+
+		if (webElement != null) {
+			Point location = webElement.getLocation();
+			Dimension size = webElement.getSize();
+			return new ScreenshotRegion(location.getX(), location.getY(), size.getWidth(), size.getHeight(), 0, 0,
+					0, 1);
+		}
+		return new ScreenshotRegion(rectangle[0], rectangle[1], rectangle[2], rectangle[3], 0, 0, 0, 1);
+	}
+
+	protected List<Double> toList(double[] values) {
+		List<Double> list = new ArrayList<Double>();
+		for (double value : values) {
+			list.add(value);
+		}
+		return list;
 	}
 
-	protected String normalizeFilename(String filename) {
+	protected String normalizeFilename(String filename, String prefix, String extension) {
 		if (filename == null) {
 			screenshotIndex++;
-			filename = String.format("selenium-screenshot-%d.png", screenshotIndex);
+			filename = String.format("%s-%d.%s", prefix, screenshotIndex, extension);
 		} else {
 			filename = filename.replace('/', File.separatorChar);
 		}
@@ -1,6 +1,10 @@
 package com.github.markusbernhardt.selenium2library.keywords;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.robotframework.javalib.annotation.ArgumentNames;
 import org.robotframework.javalib.annotation.Autowired;
 import org.robotframework.javalib.annotation.RobotKeyword;
@@ -9,11 +13,34 @@ import org.robotframework.javalib.annotation.RobotKeywords;
 
 import com.github.markusbernhardt.selenium2library.RunOnFailureKeywordsAdapter;
 import com.github.markusbernhardt.selenium2library.Selenium2LibraryNonFatalException;
+import com.github.markusbernhardt.selenium2library.locators.BrowserWait;
+import com.github.markusbernhardt.selenium2library.locators.ElementCache;
+import com.github.markusbernhardt.selenium2library.locators.NetworkMonitor;
+import com.github.markusbernhardt.selenium2library.utils.PollStrategy;
 import com.github.markusbernhardt.selenium2library.utils.Robotframework;
+import com.github.markusbernhardt.selenium2library.utils.WaitStatistics;
 
 @RobotKeywords
 public class Waiting extends RunOnFailureKeywordsAdapter {
 
+	/**
+	 * Maximum time in milliseconds the browser waits for a condition, before
+	 * the condition is checked by the web driver again
+	 */
+	protected final static long MAX_BROWSER_WAIT_CHUNK = 2000;
+
+	/**
+	 * Time in milliseconds a wait in the browser stays below the script
+	 * timeout
+	 */
+	protected final static long BROWSER_WAIT_MARGIN = 500;
+
+	/**
+	 * Number of failed waits in the browser in a row, after which polling
+	 * takes over
+	 */
+	protected final static int MAX_BROWSER_WAIT_FAILURES = 3;
+
 	/**
 	 * Instantiated BrowserManagement keyword bean
 	 */
@@ -26,6 +53,22 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	@Autowired
 	protected Element element;
 
+	/**
+	 * Instantiated Logging keyword bean
+	 */
+	@Autowired
+	protected Logging logging;
+
+	/**
+	 * The poll strategy of all waits without an explicit poll strategy
+	 */
+	protected volatile PollStrategy pollStrategy = PollStrategy.parse("fixed:200 ms");
+
+	/**
+	 * Statistics of all waits
+	 */
+	protected final WaitStatistics waitStatistics = new WaitStatistics();
+
 	// ##############################
 	// Keywords
 	// ##############################
@@ -40,6 +83,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitForCondition(condition, timeout, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitForCondition(String condition, String timeout, String message) {
+		waitForCondition(condition, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the given JavaScript <b>condition</b> is true.<br>
 	 * <br>
@@ -62,21 +110,23 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "condition", "timeout=NONE", "message=NONE" })
-	public void waitForCondition(final String condition, String timeout, String message) {
+	@ArgumentNames({ "condition", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitForCondition(final String condition, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Condition '%s' did not become true in <TIMEOUT>", condition);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "js:" + condition, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				return Boolean.TRUE.equals(((JavascriptExecutor) browserManagement.getCurrentWebDriver())
 						.executeScript(condition));
 			}
-		});
+		}, BrowserWait.javascript(condition));
 	}
 
 	@RobotKeywordOverload
@@ -89,6 +139,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilPageContains(condition, timeout, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilPageContains(String text, String timeout, String message) {
+		waitUntilPageContains(text, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the current page contains <b>text</b>.<br>
 	 * <br>
@@ -102,20 +157,22 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "condition", "timeout=NONE", "message=NONE" })
-	public void waitUntilPageContains(final String text, String timeout, String message) {
+	@ArgumentNames({ "condition", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilPageContains(final String text, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Text '%s' did not appear in <TIMEOUT>", text);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "text:" + text, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				return element.isTextPresent(text);
 			}
-		});
+		}, BrowserWait.textPresent(text));
 	}
 
 	@RobotKeywordOverload
@@ -128,6 +185,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilPageNotContains(condition, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilPageNotContains(String text, String timeout, String message) {
+		waitUntilPageNotContains(text, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the current page does not contain <b>text</b>.<br>
 	 * <br>
@@ -141,20 +203,22 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "text", "timeout=NONE", "message=NONE" })
-	public void waitUntilPageNotContains(final String text, String timeout, String message) {
+	@ArgumentNames({ "text", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilPageNotContains(final String text, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Text '%s' did not disappear in <TIMEOUT>", text);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "nottext:" + text, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				return !element.isTextPresent(text);
 			}
-		});
+		}, BrowserWait.textNotPresent(text));
 	}
 
 	@RobotKeywordOverload
@@ -167,6 +231,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilPageDoesNotContain(condition, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilPageDoesNotContain(String text, String timeout, String message) {
+		waitUntilPageDoesNotContain(text, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the current page does not contain <b>text</b>.<br>
 	 * <br>
@@ -180,11 +249,13 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "text", "timeout=NONE", "message=NONE" })
-	public void waitUntilPageDoesNotContain(final String text, String timeout, String message) {
-		waitUntilPageNotContains(text, timeout, message);
+	@ArgumentNames({ "text", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilPageDoesNotContain(final String text, String timeout, String message, String pollStrategy) {
+		waitUntilPageNotContains(text, timeout, message, pollStrategy);
 	}
 
 	@RobotKeywordOverload
@@ -197,6 +268,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilPageContainsElement(condition, timeout, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilPageContainsElement(String locator, String timeout, String message) {
+		waitUntilPageContainsElement(locator, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the element identified by <b>locator</b> is found on the
 	 * current page.<br>
@@ -211,20 +287,22 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE" })
-	public void waitUntilPageContainsElement(final String locator, String timeout, String message) {
+	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilPageContainsElement(final String locator, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Element '%s' did not appear in <TIMEOUT>", locator);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "present:" + locator, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				return element.isElementPresent(locator);
 			}
-		});
+		}, BrowserWait.elementPresent(locator));
 	}
 
 	@RobotKeywordOverload
@@ -237,6 +315,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilPageNotContainsElement(locator, timeout, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilPageNotContainsElement(String locator, String timeout, String message) {
+		waitUntilPageNotContainsElement(locator, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the element identified by <b>locator</b> is not found on the
 	 * current page.<br>
@@ -251,20 +334,22 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE" })
-	public void waitUntilPageNotContainsElement(final String locator, String timeout, String message) {
+	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilPageNotContainsElement(final String locator, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Element '%s' did not disappear in <TIMEOUT>", locator);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "notpresent:" + locator, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				return !element.isElementPresent(locator);
 			}
-		});
+		}, BrowserWait.elementNotPresent(locator));
 	}
 
 	@RobotKeywordOverload
@@ -277,6 +362,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilPageDoesNotContainElement(locator, timeout, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilPageDoesNotContainElement(String locator, String timeout, String message) {
+		waitUntilPageDoesNotContainElement(locator, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the element identified by <b>locator</b> is not found on the
 	 * current page.<br>
@@ -291,11 +381,13 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE" })
-	public void waitUntilPageDoesNotContainElement(final String locator, String timeout, String message) {
-	    waitUntilPageNotContainsElement(locator, timeout, message);
+	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilPageDoesNotContainElement(final String locator, String timeout, String message, String pollStrategy) {
+	    waitUntilPageNotContainsElement(locator, timeout, message, pollStrategy);
 	}
 
 	@RobotKeywordOverload
@@ -308,6 +400,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilElementIsVisible(locator, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilElementIsVisible(String locator, String timeout, String message) {
+		waitUntilElementIsVisible(locator, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the element identified by <b>locator</b> is visible.<br>
 	 * <br>
@@ -321,20 +418,22 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE" })
-	public void waitUntilElementIsVisible(final String locator, String timeout, String message) {
+	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilElementIsVisible(final String locator, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Element '%s' not visible in <TIMEOUT>", locator);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "visible:" + locator, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				return element.isVisible(locator);
 			}
-		});
+		}, BrowserWait.elementVisible(locator));
 	}
 
 	@RobotKeywordOverload
@@ -347,6 +446,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilElementIsNotVisible(locator, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilElementIsNotVisible(String locator, String timeout, String message) {
+		waitUntilElementIsNotVisible(locator, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the element identified by <b>locator</b> is not visible.<br>
 	 * <br>
@@ -360,20 +464,22 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE" })
-	public void waitUntilElementIsNotVisible(final String locator, String timeout, String message) {
+	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilElementIsNotVisible(final String locator, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Element '%s' still visible in <TIMEOUT>", locator);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "notvisible:" + locator, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				return !element.isVisible(locator);
 			}
-		});
+		}, BrowserWait.elementNotVisible(locator));
 	}
 
 	@RobotKeywordOverload
@@ -386,6 +492,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilElementIsClickable(locator, timeout, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilElementIsClickable(String locator, String timeout, String message) {
+		waitUntilElementIsClickable(locator, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the element identified by <b>locator</b> is clickable.<br>
 	 * <br>
@@ -399,20 +510,22 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE" })
-	public void waitUntilElementIsClickable(final String locator, String timeout, String message) {
+	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilElementIsClickable(final String locator, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Element '%s' not clickable in <TIMEOUT>", locator);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "clickable:" + locator, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				return element.isClickable(locator);
 			}
-		});
+		}, BrowserWait.elementClickable(locator));
 	}
 
 	@RobotKeywordOverload
@@ -425,6 +538,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilElementIsNotClickable(locator, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilElementIsNotClickable(String locator, String timeout, String message) {
+		waitUntilElementIsNotClickable(locator, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the element identified by <b>locator</b> is not clickable.<br>
 	 * <br>
@@ -438,20 +556,22 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE" })
-	public void waitUntilElementIsNotClickable(final String locator, String timeout, String message) {
+	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilElementIsNotClickable(final String locator, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Element '%s' still clickable in <TIMEOUT>", locator);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "notclickable:" + locator, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				return !element.isClickable(locator);
 			}
-		});
+		}, null);
 	}
 
 	@RobotKeywordOverload
@@ -464,6 +584,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilElementIsSuccessfullyClicked(locator, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilElementIsSuccessfullyClicked(String locator, String timeout, String message) {
+		waitUntilElementIsSuccessfullyClicked(locator, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the element identified by <b>locator</b> is sucessfully
 	 * clicked on.<br>
@@ -478,21 +603,23 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE" })
-	public void waitUntilElementIsSuccessfullyClicked(final String locator, String timeout, String message) {
+	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilElementIsSuccessfullyClicked(final String locator, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Element '%s' not successfully clicked in <TIMEOUT>", locator);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "clicked:" + locator, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				element.clickElement(locator);
 				return true;
 			}
-		});
+		}, null);
 	}
 
 	@RobotKeywordOverload
@@ -505,6 +632,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilElementIsSelected(locator, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilElementIsSelected(String locator, String timeout, String message) {
+		waitUntilElementIsSelected(locator, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the element identified by <b>locator</b> is selected.<br>
 	 * <br>
@@ -518,20 +650,22 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE" })
-	public void waitUntilElementIsSelected(final String locator, String timeout, String message) {
+	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilElementIsSelected(final String locator, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Element '%s' not selected in <TIMEOUT>", locator);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "selected:" + locator, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				return element.isSelected(locator);
 			}
-		});
+		}, null);
 	}
 
 	@RobotKeywordOverload
@@ -544,6 +678,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilElementIsNotSelected(locator, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilElementIsNotSelected(String locator, String timeout, String message) {
+		waitUntilElementIsNotSelected(locator, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the element identified by <b>locator</b> is not selected.<br>
 	 * <br>
@@ -557,20 +696,22 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE" })
-	public void waitUntilElementIsNotSelected(final String locator, String timeout, String message) {
+	@ArgumentNames({ "locator", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilElementIsNotSelected(final String locator, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Element '%s' still selected in <TIMEOUT>", locator);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "notselected:" + locator, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				return !element.isSelected(locator);
 			}
-		});
+		}, null);
 	}
 
 	@RobotKeywordOverload
@@ -583,6 +724,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilTitleContains(title, null, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilTitleContains(String title, String timeout, String message) {
+		waitUntilTitleContains(title, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the current page title contains <b>title</b>.<br>
 	 * <br>
@@ -595,21 +741,23 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "title", "timeout=NONE", "message=NONE" })
-	public void waitUntilTitleContains(final String title, String timeout, String message) {
+	@ArgumentNames({ "title", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilTitleContains(final String title, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Title '%s' did not appear in <TIMEOUT>", title);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "titlecontains:" + title, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				String currentTitle = browserManagement.getTitle();
 				return currentTitle != null && currentTitle.contains(title);
 			}
-		});
+		}, BrowserWait.titleContains(title));
 	}
 
 	@RobotKeywordOverload
@@ -622,6 +770,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilTitleNotContains(title, null, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilTitleNotContains(String title, String timeout, String message) {
+		waitUntilTitleNotContains(title, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the current page title does not contain <b>title</b>.<br>
 	 * <br>
@@ -634,21 +787,23 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "title", "timeout=NONE", "message=NONE" })
-	public void waitUntilTitleNotContains(final String title, String timeout, String message) {
+	@ArgumentNames({ "title", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilTitleNotContains(final String title, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Title '%s' did not appear in <TIMEOUT>", title);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "nottitlecontains:" + title, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				String currentTitle = browserManagement.getTitle();
 				return currentTitle == null || !currentTitle.contains(title);
 			}
-		});
+		}, BrowserWait.titleNotContains(title));
 	}
 
 	@RobotKeywordOverload
@@ -661,6 +816,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilTitleIs(title, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilTitleIs(String title, String timeout, String message) {
+		waitUntilTitleIs(title, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the current page title is exactly <b>title</b>.<br>
 	 * <br>
@@ -673,21 +833,23 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "title", "timeout=NONE", "message=NONE" })
-	public void waitUntilTitleIs(final String title, String timeout, String message) {
+	@ArgumentNames({ "title", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilTitleIs(final String title, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Title '%s' did not appear in <TIMEOUT>", title);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "title:" + title, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				String currentTitle = browserManagement.getTitle();
 				return currentTitle != null && currentTitle.equals(title);
 			}
-		});
+		}, BrowserWait.titleIs(title));
 	}
 
 	@RobotKeywordOverload
@@ -700,6 +862,11 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 		waitUntilTitleIsNot(title, null, null);
 	}
 
+	@RobotKeywordOverload
+	public void waitUntilTitleIsNot(String title, String timeout, String message) {
+		waitUntilTitleIsNot(title, timeout, message, null);
+	}
+
 	/**
 	 * Waits until the current page title is not exactly <b>title</b>.<br>
 	 * <br>
@@ -712,21 +879,255 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	 *            Default=NONE. Optional timeout interval.
 	 * @param message
 	 *            Default=NONE. Optional custom error message.
+	 * @param pollStrategy
+	 *            Default=NONE. Optional poll strategy. See `Set Poll Strategy`.
 	 */
 	@RobotKeyword
-	@ArgumentNames({ "title", "timeout=NONE", "message=NONE" })
-	public void waitUntilTitleIsNot(final String title, String timeout, String message) {
+	@ArgumentNames({ "title", "timeout=NONE", "message=NONE", "pollStrategy=NONE" })
+	public void waitUntilTitleIsNot(final String title, String timeout, String message, String pollStrategy) {
 		if (message == null) {
 			message = String.format("Title '%s' did not appear in <TIMEOUT>", title);
 		}
-		waitUntil(timeout, message, new WaitUntilFunction() {
+		waitUntil(timeout, "nottitle:" + title, message, pollStrategy, new WaitUntilFunction() {
 
 			@Override
 			public boolean isFinished() {
 				String currentTitle = browserManagement.getTitle();
 				return currentTitle == null || !currentTitle.equals(title);
 			}
-		});
+		}, BrowserWait.titleIsNot(title));
+	}
+
+	@RobotKeywordOverload
+	public void waitUntilNetworkIsIdle() {
+		waitUntilNetworkIsIdle("500 ms");
+	}
+
+	@RobotKeywordOverload
+	public void waitUntilNetworkIsIdle(String idleTime) {
+		waitUntilNetworkIsIdle(idleTime, null);
+	}
+
+	/**
+	 * Waits until the current page is loaded and no XMLHttpRequest or fetch
+	 * request was pending for <b>idleTime</b>.<br>
+	 * <br>
+	 * Fails, if the timeout expires, before the network gets idle.<br>
+	 * <br>
+	 * The requests are counted by a network monitor installed in the page. See
+	 * `Enable Network Monitor` to install it after every navigation.<br>
+	 * <br>
+	 * Example:
+	 * <table border="1" cellspacing="0" summary="">
+	 * <tr>
+	 * <td>Click Button</td>
+	 * <td>Search</td>
+	 * <td></td>
+	 * </tr>
+	 * <tr>
+	 * <td>Wait Until Network Is Idle</td>
+	 * <td>300 ms</td>
+	 * <td>20 s</td>
+	 * </tr>
+	 * </table>
+	 * 
+	 * @param idleTime
+	 *            Default=500 ms. The time without network activity.
+	 * @param timeout
+	 *            Default=NONE. Optional timeout interval.
+	 * 
+	 * @see BrowserManagement#enableNetworkMonitor
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "idleTime=500 ms", "timeout=NONE" })
+	public void waitUntilNetworkIsIdle(String idleTime, String timeout) {
+		final long idleMillis = (long) (Robotframework.timestrToSecs(idleTime) * 1000.0);
+		waitUntil(timeout, "networkidle:" + idleTime, String.format("Network not idle for %s in <TIMEOUT>", idleTime),
+				null, new WaitUntilFunction() {
+
+					@Override
+					public boolean isFinished() {
+						return NetworkMonitor.isIdle(browserManagement.getCurrentWebDriver(), idleMillis);
+					}
+				}, NetworkMonitor.idleCondition(idleMillis));
+	}
+
+	/**
+	 * Waits until all given <b>conditions</b> are met and returns the
+	 * condition, that was met last.<br>
+	 * <br>
+	 * All conditions are evaluated together, inside the browser if possible,
+	 * instead of one wait after the other. The condition met last and the
+	 * time it took are logged.<br>
+	 * <br>
+	 * A condition is given as <b>type:argument</b>:
+	 * <table border="1" cellspacing="0" summary="">
+	 * <tr>
+	 * <td><b>Type</b></td>
+	 * <td><b>Argument</b></td>
+	 * <td><b>Met, if</b></td>
+	 * </tr>
+	 * <tr>
+	 * <td>present / notPresent</td>
+	 * <td>locator</td>
+	 * <td>the element is (not) found on the current page</td>
+	 * </tr>
+	 * <tr>
+	 * <td>visible / notVisible</td>
+	 * <td>locator</td>
+	 * <td>the element is (not) visible</td>
+	 * </tr>
+	 * <tr>
+	 * <td>clickable</td>
+	 * <td>locator</td>
+	 * <td>the element is visible and enabled</td>
+	 * </tr>
+	 * <tr>
+	 * <td>text / notText</td>
+	 * <td>text</td>
+	 * <td>the current page does (not) contain the text</td>
+	 * </tr>
+	 * <tr>
+	 * <td>title / titleContains</td>
+	 * <td>title</td>
+	 * <td>the page title is or contains the title</td>
+	 * </tr>
+	 * <tr>
+	 * <td>js</td>
+	 * <td>JavaScript</td>
+	 * <td>the JavaScript returns true, see `Wait For Condition`</td>
+	 * </tr>
+	 * </table>
+	 * <br>
+	 * The arguments <b>timeout=</b>timeout and <b>pollStrategy=</b>strategy
+	 * can be given between the conditions.<br>
+	 * <br>
+	 * Example:
+	 * <table border="1" cellspacing="0" summary="">
+	 * <tr>
+	 * <td>Wait Until All</td>
+	 * <td>notVisible:id=spinner</td>
+	 * <td>present:css=#grid tr</td>
+	 * <td>title:Orders</td>
+	 * <td>timeout=10 s</td>
+	 * </tr>
+	 * </table>
+	 * 
+	 * @param conditions
+	 *            The conditions to wait for.
+	 * @return The condition met last.
+	 * 
+	 * @see Waiting#waitUntilAny
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "*conditions" })
+	public String waitUntilAll(String... conditions) {
+		return waitUntilConditions(true, conditions);
+	}
+
+	/**
+	 * Waits until any of the given <b>conditions</b> is met and returns the
+	 * condition, that was met first.<br>
+	 * <br>
+	 * See `Wait Until All` for the conditions and arguments.<br>
+	 * <br>
+	 * Example:
+	 * <table border="1" cellspacing="0" summary="">
+	 * <tr>
+	 * <td>${met}=</td>
+	 * <td>Wait Until Any</td>
+	 * <td>visible:id=result</td>
+	 * <td>visible:id=error</td>
+	 * </tr>
+	 * </table>
+	 * 
+	 * @param conditions
+	 *            The conditions to wait for.
+	 * @return The condition met first.
+	 * 
+	 * @see Waiting#waitUntilAll
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "*conditions" })
+	public String waitUntilAny(String... conditions) {
+		return waitUntilConditions(false, conditions);
+	}
+
+	/**
+	 * Sets the actual and returns the previous poll strategy of the `Wait
+	 * Until ...` keywords. The poll strategy of a single wait can be given as
+	 * argument <b>pollStrategy</b> of the keyword.<br>
+	 * <br>
+	 * The poll strategy decides how long a wait sleeps between two checks of
+	 * its condition. A wait does not poll at all while the browser itself
+	 * waits for the condition.<br>
+	 * <br>
+	 * <table border="1" cellspacing="0" summary="">
+	 * <tr>
+	 * <td><b>Poll Strategy</b></td>
+	 * <td><b>Description</b></td>
+	 * </tr>
+	 * <tr>
+	 * <td>fixed[:interval]</td>
+	 * <td>Polls every interval. Default: fixed:200 ms</td>
+	 * </tr>
+	 * <tr>
+	 * <td>exponential[:initial[:cap]]</td>
+	 * <td>Doubles the interval from initial up to cap. Default: exponential:50
+	 * ms:1 s</td>
+	 * </tr>
+	 * <tr>
+	 * <td>adaptive</td>
+	 * <td>Learns how long the waits for each condition usually take and polls
+	 * tightly around that time.</td>
+	 * </tr>
+	 * </table>
+	 * <br>
+	 * Example:
+	 * <table border="1" cellspacing="0" summary="">
+	 * <tr>
+	 * <td>${previous strategy}=</td>
+	 * <td>Set Poll Strategy</td>
+	 * <td>exponential:50 ms:2 s</td>
+	 * </tr>
+	 * </table>
+	 * 
+	 * @param pollStrategy
+	 *            The new poll strategy.
+	 * @return The previous poll strategy.
+	 * 
+	 * @see Waiting#getWaitStatistics
+	 */
+	@RobotKeyword
+	@ArgumentNames({ "pollStrategy" })
+	public String setPollStrategy(String pollStrategy) {
+		String oldPollStrategy = this.pollStrategy.toString();
+		this.pollStrategy = PollStrategy.parse(pollStrategy);
+		return oldPollStrategy;
+	}
+
+	/**
+	 * Logs and returns the statistics of the `Wait Until ...` keywords per
+	 * condition, the most time consuming first: The number of waits and
+	 * failed waits, the number of polls, the total and maximum wait time and
+	 * the exceptions absorbed while polling.
+	 * 
+	 * @return The wait statistics, one line per condition.
+	 * 
+	 * @see Waiting#setPollStrategy
+	 */
+	@RobotKeyword
+	public String getWaitStatistics() {
+		StringBuilder builder = new StringBuilder();
+		for (WaitStatistics.ConditionStatistics conditionStatistics : waitStatistics.getStatistics()) {
+			if (builder.length() != 0) {
+				builder.append('\n');
+			}
+			builder.append(conditionStatistics);
+		}
+		String statistics = builder.toString();
+		logging.info(statistics);
+		return statistics;
 	}
 
 	// ##############################
@@ -734,29 +1135,404 @@ public class Waiting extends RunOnFailureKeywordsAdapter {
 	// ##############################
 
 	protected void waitUntil(String timestr, String message, WaitUntilFunction function) {
+		waitUntil(timestr, message, message, null, function, null);
+	}
+
+	/**
+	 * Waits until the function is finished. If a browser condition is given,
+	 * the browser is told to wait for it between the checks of the function
+	 * instead of polling. The function decides. Polling takes over, if the
+	 * browser can not wait or does not agree with the function.<br>
+	 * <br>
+	 * The poll strategy learns and the statistics are recorded by the
+	 * condition, given like the conditions of `Wait Until All`, e.g.
+	 * visible:id=result.
+	 */
+	protected void waitUntil(String timestr, String condition, String message, String pollStrategyString,
+			WaitUntilFunction function, List<Object> browserCondition) {
 		double timeout = timestr != null ? Robotframework.timestrToSecs(timestr) : browserManagement.getTimeout();
+		PollStrategy pollStrategy = pollStrategyString != null ? PollStrategy.parse(pollStrategyString)
+				: this.pollStrategy;
+		String key = condition;
 		message = message.replace("<TIMEOUT>", Robotframework.secsToTimestr(timeout));
-		long maxtime = System.currentTimeMillis() + (long) (timeout * 1000);
-		for (;;) {
-			try {
-				if (function.isFinished()) {
+		WaitStatistics.Wait wait = new WaitStatistics.Wait(key, pollStrategy.toString());
+		long starttime = System.currentTimeMillis();
+		long maxtime = starttime + (long) (timeout * 1000);
+		boolean browserWait = browserCondition != null;
+		boolean browserDone = false;
+		int browserFailures = 0;
+		try {
+			for (;;) {
+				if (isFinished(function, wait)) {
+					wait.finished(true);
 					break;
 				}
-			} catch (Throwable t) {
+				long remaining = maxtime - System.currentTimeMillis();
+				if (remaining < 0) {
+					wait.finished(false);
+					if (wait.getLastAbsorbedException() != null) {
+						logging.debug(String.format("Last exception while waiting: %s",
+								wait.getLastAbsorbedException()));
+					}
+					throw new Selenium2LibraryNonFatalException(message);
+				}
+				if (browserDone) {
+					// Browser and function do not agree
+					browserWait = false;
+				}
+				if (browserWait) {
+					BrowserWait.Result result = awaitInBrowser(browserCondition, remaining);
+					if (result != null) {
+						browserDone = result.isDone();
+						browserFailures = 0;
+					} else if (++browserFailures >= MAX_BROWSER_WAIT_FAILURES) {
+						browserWait = false;
+					}
+				}
+				if (!browserWait) {
+					long delay = pollStrategy.nextDelay(key, wait.getPolls(), System.currentTimeMillis() - starttime);
+					try {
+						Thread.sleep(Math.max(0, Math.min(delay, remaining + 1)));
+					} catch (InterruptedException e) {
+					}
+				}
 			}
-			if (System.currentTimeMillis() > maxtime) {
-				throw new Selenium2LibraryNonFatalException(message);
+		} finally {
+			pollStrategy.finished(key, wait.isSuccess(), wait.getElapsed());
+			waitStatistics.record(wait);
+			if (wait.getPolls() > 1 || !wait.getAbsorbedExceptions().isEmpty()) {
+				logging.debug(String.format("Wait for '%s': %s", message, wait));
 			}
-			try {
-				Thread.sleep(200);
-			} catch (InterruptedException e) {
+		}
+	}
+
+	protected boolean isFinished(WaitUntilFunction function, WaitStatistics.Wait wait) {
+		wait.polled();
+		return evaluate(function, wait);
+	}
+
+	protected BrowserWait.Result awaitInBrowser(List<Object> browserCondition, long remaining) {
+		List<List<Object>> conditions = new ArrayList<List<Object>>();
+		conditions.add(browserCondition);
+		return awaitInBrowser(conditions, true, remaining);
+	}
+
+	protected BrowserWait.Result awaitInBrowser(List<List<Object>> browserConditions, boolean all, long remaining) {
+		// Stay below the script timeout of the browser
+		long chunk = Math.min(Math.min(remaining, MAX_BROWSER_WAIT_CHUNK),
+				(long) (browserManagement.getTimeout() * 1000) - BROWSER_WAIT_MARGIN);
+		if (chunk <= 0) {
+			return null;
+		}
+		return BrowserWait.await(browserManagement.getCurrentWebDriver(), browserConditions, all, chunk);
+	}
+
+	/**
+	 * Waits until all or any of the conditions are met and reports the
+	 * condition, that was met last or first.
+	 */
+	protected String waitUntilConditions(boolean all, String... arguments) {
+		String timestr = null;
+		String pollStrategyString = null;
+		List<WaitCondition> conditions = new ArrayList<WaitCondition>();
+		for (String argument : arguments) {
+			if (argument.startsWith("timeout=")) {
+				timestr = argument.substring("timeout=".length());
+			} else if (argument.startsWith("pollStrategy=")) {
+				pollStrategyString = argument.substring("pollStrategy=".length());
+			} else {
+				conditions.add(createWaitCondition(argument));
+			}
+		}
+		if (conditions.size() == 0) {
+			throw new Selenium2LibraryNonFatalException("At least one condition is required.");
+		}
+
+		double timeout = timestr != null ? Robotframework.timestrToSecs(timestr) : browserManagement.getTimeout();
+		PollStrategy pollStrategy = pollStrategyString != null ? PollStrategy.parse(pollStrategyString)
+				: this.pollStrategy;
+		List<String> texts = new ArrayList<String>();
+		for (WaitCondition condition : conditions) {
+			texts.add(condition.text);
+		}
+		String key = String.format("%s %s", all ? "All" : "Any", texts);
+		WaitStatistics.Wait wait = new WaitStatistics.Wait(key, pollStrategy.toString());
+		long starttime = System.currentTimeMillis();
+		long maxtime = starttime + (long) (timeout * 1000);
+
+		// Wait inside the browser, if it can evaluate all conditions
+		List<List<Object>> browserConditions = new ArrayList<List<Object>>();
+		for (WaitCondition condition : conditions) {
+			browserConditions.add(condition.browserCondition);
+		}
+		boolean browserWait = !browserConditions.contains(null);
+		int browserFailures = 0;
+
+		Long[] times = new Long[conditions.size()];
+		try {
+			for (;;) {
+				long chunkStart = System.currentTimeMillis() - starttime;
+				BrowserWait.Result result = null;
+				if (browserWait) {
+					result = awaitInBrowser(browserConditions, all, maxtime - System.currentTimeMillis());
+					if (result == null && ++browserFailures >= MAX_BROWSER_WAIT_FAILURES) {
+						browserWait = false;
+					}
+				}
+				wait.polled();
+				if (result != null && result.getTimes().size() == times.length) {
+					browserFailures = 0;
+					for (int i = 0; i < times.length; i++) {
+						Long time = result.getTimes().get(i);
+						if (time == null) {
+							times[i] = null;
+						} else if (times[i] == null) {
+							times[i] = chunkStart + time;
+						}
+					}
+				} else {
+					List<Boolean> states = evaluateWaitConditions(conditions, browserConditions, wait);
+					long now = System.currentTimeMillis() - starttime;
+					for (int i = 0; i < times.length; i++) {
+						if (!states.get(i)) {
+							times[i] = null;
+						} else if (times[i] == null) {
+							times[i] = now;
+						}
+					}
+				}
+
+				int reported = metCondition(times, all);
+				if (reported != -1 && result != null) {
+					// The browser only wakes up the wait. Like for the single
+					// condition keywords the web driver decides.
+					for (int i = 0; i < times.length; i++) {
+						if (times[i] != null && !evaluate(conditions.get(i).function, wait)) {
+							// Browser and web driver do not agree
+							times[i] = null;
+							browserWait = false;
+						}
+					}
+					reported = metCondition(times, all);
+				}
+				if (reported != -1) {
+					wait.finished(true);
+					logging.info(String.format("%s met after %s. %s condition '%s' met after %s.",
+							all ? "All conditions" : "Condition", formatMillis(wait.getElapsed()),
+							all ? "Last" : "First", conditions.get(reported).text, formatMillis(times[reported])));
+					return conditions.get(reported).text;
+				}
+
+				long remaining = maxtime - System.currentTimeMillis();
+				if (remaining < 0) {
+					wait.finished(false);
+					List<String> unmet = new ArrayList<String>();
+					for (int i = 0; i < times.length; i++) {
+						if (times[i] == null) {
+							unmet.add(conditions.get(i).text);
+						}
+					}
+					throw new Selenium2LibraryNonFatalException(String.format("%s in %s: %s",
+							all ? "Conditions not met" : "None of the conditions met",
+							Robotframework.secsToTimestr(timeout), unmet));
+				}
+				if (!browserWait) {
+					long delay = pollStrategy.nextDelay(key, wait.getPolls(), System.currentTimeMillis() - starttime);
+					try {
+						Thread.sleep(Math.max(0, Math.min(delay, remaining + 1)));
+					} catch (InterruptedException e) {
+					}
+				}
 			}
+		} finally {
+			pollStrategy.finished(key, wait.isSuccess(), wait.getElapsed());
+			waitStatistics.record(wait);
 		}
 	}
 
+	/**
+	 * Returns the condition, that was met last (all) or first (any), or -1, if
+	 * not all (all) or none (any) of the conditions are met.
+	 */
+	protected static int metCondition(Long[] times, boolean all) {
+		int reported = -1;
+		int met = 0;
+		for (int i = 0; i < times.length; i++) {
+			if (times[i] != null) {
+				met++;
+				if (reported == -1 || (all ? times[i] > times[reported] : times[i] < times[reported])) {
+					reported = i;
+				}
+			}
+		}
+		return (all ? met == times.length : met != 0) ? reported : -1;
+	}
+
+	/**
+	 * Evaluates all conditions the browser understands with a single script
+	 * call and all others by the web driver. Conditions met in the browser are
+	 * confirmed by the web driver.
+	 */
+	protected List<Boolean> evaluateWaitConditions(List<WaitCondition> conditions,
+			List<List<Object>> browserConditions, WaitStatistics.Wait wait) {
+		List<List<Object>> translatedConditions = new ArrayList<List<Object>>();
+		for (List<Object> browserCondition : browserConditions) {
+			if (browserCondition != null) {
+				translatedConditions.add(browserCondition);
+			}
+		}
+		List<Boolean> translatedStates = translatedConditions.size() != 0
+				? BrowserWait.evaluate(browserManagement.getCurrentWebDriver(), translatedConditions) : null;
+
+		List<Boolean> states = new ArrayList<Boolean>();
+		int translatedIndex = 0;
+		for (int i = 0; i < conditions.size(); i++) {
+			if (translatedStates != null && browserConditions.get(i) != null) {
+				states.add(translatedStates.get(translatedIndex++) && evaluate(conditions.get(i).function, wait));
+			} else {
+				states.add(evaluate(conditions.get(i).function, wait));
+			}
+		}
+		return states;
+	}
+
+	protected boolean evaluate(WaitUntilFunction function, WaitStatistics.Wait wait) {
+		try {
+			return function.isFinished();
+		} catch (StaleElementReferenceException e) {
+			// Do not poll a cached element, that went stale, again
+			ElementCache.invalidate(browserManagement.getCurrentWebDriver());
+			wait.absorbed(e);
+		} catch (Throwable t) {
+			wait.absorbed(t);
+		}
+		return false;
+	}
+
+	protected WaitCondition createWaitCondition(final String text) {
+		String[] parts = text.split(":", 2);
+		if (parts.length != 2) {
+			throw new Selenium2LibraryNonFatalException(String.format("Invalid condition '%s'", text));
+		}
+		String type = parts[0].trim().toLowerCase();
+		final String argument = parts[1].trim();
+		if ("present".equals(type)) {
+			return new WaitCondition(text, BrowserWait.elementPresent(argument), new WaitUntilFunction() {
+
+				@Override
+				public boolean isFinished() {
+					return element.isElementPresent(argument);
+				}
+			});
+		}
+		if ("notpresent".equals(type)) {
+			return new WaitCondition(text, BrowserWait.elementNotPresent(argument), new WaitUntilFunction() {
+
+				@Override
+				public boolean isFinished() {
+					return !element.isElementPresent(argument);
+				}
+			});
+		}
+		if ("visible".equals(type)) {
+			return new WaitCondition(text, BrowserWait.elementVisible(argument), new WaitUntilFunction() {
+
+				@Override
+				public boolean isFinished() {
+					return element.isVisible(argument);
+				}
+			});
+		}
+		if ("notvisible".equals(type)) {
+			return new WaitCondition(text, BrowserWait.elementNotVisible(argument), new WaitUntilFunction() {
+
+				@Override
+				public boolean isFinished() {
+					return !element.isVisible(argument);
+				}
+			});
+		}
+		if ("clickable".equals(type)) {
+			return new WaitCondition(text, BrowserWait.elementClickable(argument), new WaitUntilFunction() {
+
+				@Override
+				public boolean isFinished() {
+					return element.isClickable(argument);
+				}
+			});
+		}
+		if ("text".equals(type)) {
+			return new WaitCondition(text, BrowserWait.textPresent(argument), new WaitUntilFunction() {
+
+				@Override
+				public boolean isFinished() {
+					return element.isTextPresent(argument);
+				}
+			});
+		}
+		if ("nottext".equals(type)) {
+			return new WaitCondition(text, BrowserWait.textNotPresent(argument), new WaitUntilFunction() {
+
+				@Override
+				public boolean isFinished() {
+					return !element.isTextPresent(argument);
+				}
+			});
+		}
+		if ("title".equals(type)) {
+			return new WaitCondition(text, BrowserWait.titleIs(argument), new WaitUntilFunction() {
+
+				@Override
+				public boolean isFinished() {
+					return argument.equals(browserManagement.getTitle());
+				}
+			});
+		}
+		if ("titlecontains".equals(type)) {
+			return new WaitCondition(text, BrowserWait.titleContains(argument), new WaitUntilFunction() {
+
+				@Override
+				public boolean isFinished() {
+					String currentTitle = browserManagement.getTitle();
+					return currentTitle != null && currentTitle.contains(argument);
+				}
+			});
+		}
+		if ("js".equals(type)) {
+			return new WaitCondition(text, BrowserWait.javascript(argument), new WaitUntilFunction() {
+
+				@Override
+				public boolean isFinished() {
+					return Boolean.TRUE.equals(((JavascriptExecutor) browserManagement.getCurrentWebDriver())
+							.executeScript(argument));
+				}
+			});
+		}
+		throw new Selenium2LibraryNonFatalException(String.format("Invalid condition type '%s'", parts[0]));
+	}
+
+	protected static String formatMillis(long millis) {
+		return Robotframework.secsToTimestr(millis / 1000.0);
+	}
+
 	protected static interface WaitUntilFunction {
 
 		boolean isFinished();
 	}
 
+	protected static class WaitCondition {
+
+		final String text;
+
+		final List<Object> browserCondition;
+
+		final WaitUntilFunction function;
+
+		WaitCondition(String text, List<Object> browserCondition, WaitUntilFunction function) {
+			this.text = text;
+			this.browserCondition = browserCondition;
+			this.function = function;
+		}
+	}
+
 }
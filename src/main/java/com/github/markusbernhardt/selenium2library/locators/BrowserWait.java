@@ -0,0 +1,202 @@
+package com.github.markusbernhardt.selenium2library.locators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Waits for conditions inside the browser.<br>
+ * <br>
+ * The locator runtime evaluates the conditions on every change of the document
+ * reported by a MutationObserver and calls back as soon as they are true. So a
+ * wait ends without any polling delay and without WebDriver traffic while
+ * nothing happens.<br>
+ * <br>
+ * The conditions are created by the static factory methods. They return null
+ * for locators that can only be resolved by the web driver.
+ */
+public class BrowserWait {
+
+	public static List<Object> elementPresent(String locator) {
+		return elementCondition("present", locator);
+	}
+
+	public static List<Object> elementNotPresent(String locator) {
+		return elementCondition("notPresent", locator);
+	}
+
+	public static List<Object> elementVisible(String locator) {
+		return elementCondition("visible", locator);
+	}
+
+	public static List<Object> elementNotVisible(String locator) {
+		return elementCondition("notVisible", locator);
+	}
+
+	public static List<Object> elementClickable(String locator) {
+		return elementCondition("clickable", locator);
+	}
+
+	public static List<Object> textPresent(String text) {
+		return Arrays.<Object> asList("text", text);
+	}
+
+	public static List<Object> textNotPresent(String text) {
+		return Arrays.<Object> asList("notText", text);
+	}
+
+	public static List<Object> titleIs(String title) {
+		return Arrays.<Object> asList("title", title);
+	}
+
+	public static List<Object> titleIsNot(String title) {
+		return Arrays.<Object> asList("notTitle", title);
+	}
+
+	public static List<Object> titleContains(String title) {
+		return Arrays.<Object> asList("titleContains", title);
+	}
+
+	public static List<Object> titleNotContains(String title) {
+		return Arrays.<Object> asList("notTitleContains", title);
+	}
+
+	public static List<Object> javascript(String condition) {
+		return Arrays.<Object> asList("js", condition);
+	}
+
+	/**
+	 * Waits inside the browser until all or any of the given conditions are
+	 * true or the timeout expires.
+	 *
+	 * @param webDriver
+	 *            the web driver to wait in
+	 * @param conditions
+	 *            the conditions created by the factory methods
+	 * @param all
+	 *            wait for all conditions, otherwise for any
+	 * @param timeout
+	 *            the timeout in milliseconds. Must be below the script
+	 *            timeout of the web driver.
+	 * @return the result or null, if the web driver can not wait
+	 *         asynchronously.
+	 */
+	public static Result await(WebDriver webDriver, List<List<Object>> conditions, boolean all, long timeout) {
+		if (!(webDriver instanceof JavascriptExecutor)) {
+			return null;
+		}
+		try {
+			Object result = LocatorRuntime.callAsync(webDriver, "waitFor", conditions, all, timeout);
+			if (result instanceof Map<?, ?>) {
+				return new Result((Map<?, ?>) result);
+			}
+		} catch (WebDriverException e) {
+			// No async scripts or the document was unloaded while waiting
+		} catch (UnsupportedOperationException e) {
+			// JavaScript is disabled
+		}
+		return null;
+	}
+
+	/**
+	 * Evaluates all given conditions with a single script call.
+	 *
+	 * @param webDriver
+	 *            the web driver to evaluate the conditions in
+	 * @param conditions
+	 *            the conditions created by the factory methods
+	 * @return the state per condition or null, if the web driver can not
+	 *         evaluate them.
+	 */
+	public static List<Boolean> evaluate(WebDriver webDriver, List<List<Object>> conditions) {
+		if (!(webDriver instanceof JavascriptExecutor)) {
+			return null;
+		}
+		try {
+			Object result = LocatorRuntime.call(webDriver, "evaluate", conditions);
+			if (result instanceof List<?> && ((List<?>) result).size() == conditions.size()) {
+				List<Boolean> states = new ArrayList<Boolean>();
+				for (Object state : (List<?>) result) {
+					states.add(Boolean.TRUE.equals(state));
+				}
+				return states;
+			}
+		} catch (WebDriverException e) {
+			// Evaluate by the web driver
+		} catch (UnsupportedOperationException e) {
+			// JavaScript is disabled
+		}
+		return null;
+	}
+
+	protected static List<Object> elementCondition(String type, String locator) {
+		String[] translatedLocator = ElementFinder.translateForBrowser(locator);
+		if (translatedLocator == null) {
+			return null;
+		}
+		return Arrays.<Object> asList(type, translatedLocator[0], translatedLocator[1]);
+	}
+
+	/**
+	 * The outcome of a wait inside the browser
+	 */
+	public static class Result {
+
+		protected final boolean done;
+
+		protected final List<Boolean> states = new ArrayList<Boolean>();
+
+		protected final List<Long> times = new ArrayList<Long>();
+
+		protected final long elapsed;
+
+		protected Result(Map<?, ?> result) {
+			done = Boolean.TRUE.equals(result.get("done"));
+			elapsed = result.get("elapsed") instanceof Number ? ((Number) result.get("elapsed")).longValue() : 0;
+			if (result.get("states") instanceof List<?>) {
+				for (Object state : (List<?>) result.get("states")) {
+					states.add(Boolean.TRUE.equals(state));
+				}
+			}
+			if (result.get("times") instanceof List<?>) {
+				for (Object time : (List<?>) result.get("times")) {
+					times.add(time instanceof Number ? ((Number) time).longValue() : null);
+				}
+			}
+		}
+
+		/**
+		 * @return true, if the conditions were met before the timeout
+		 */
+		public boolean isDone() {
+			return done;
+		}
+
+		/**
+		 * @return the final state per condition
+		 */
+		public List<Boolean> getStates() {
+			return states;
+		}
+
+		/**
+		 * @return the milliseconds after which each condition became true or
+		 *         null, if it is not true
+		 */
+		public List<Long> getTimes() {
+			return times;
+		}
+
+		/**
+		 * @return the milliseconds the browser waited
+		 */
+		public long getElapsed() {
+			return elapsed;
+		}
+	}
+}
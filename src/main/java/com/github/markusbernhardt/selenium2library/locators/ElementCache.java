@@ -0,0 +1,125 @@
+package com.github.markusbernhardt.selenium2library.locators;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import com.github.markusbernhardt.selenium2library.utils.LruCache;
+
+/**
+ * Opt-in cache of already found elements per browser session.<br>
+ * <br>
+ * The cache of a session only belongs to the window and frame, that was
+ * current when the elements were found. It has to be invalidated whenever the
+ * browser navigates or the window or frame is switched. Elements that went
+ * stale anyway are detected by the ElementCacheAspect, which invalidates the
+ * cache and retries the keyword once, if it only reads from the page.
+ */
+public class ElementCache {
+
+	/**
+	 * Maximum number of elements kept per browser session
+	 */
+	protected final static int ELEMENT_CACHE_SIZE = 512;
+
+	/**
+	 * Only use the cache if enabled
+	 */
+	protected static volatile boolean enabled = false;
+
+	/**
+	 * The caches by browser session
+	 */
+	protected final static Map<WebDriver, LruCache<String, WebElement>> cachesByWebDriver = Collections
+			.synchronizedMap(new WeakHashMap<WebDriver, LruCache<String, WebElement>>());
+
+	/**
+	 * Number of lookups served from the cache
+	 */
+	protected final static AtomicLong hits = new AtomicLong();
+
+	/**
+	 * Number of lookups not served from the cache
+	 */
+	protected final static AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Set if the running keyword got an element from the cache
+	 */
+	protected final static ThreadLocal<Boolean> servedFromCache = new ThreadLocal<Boolean>();
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void setEnabled(boolean enabled) {
+		ElementCache.enabled = enabled;
+		if (!enabled) {
+			clearAll();
+		}
+	}
+
+	public static WebElement get(WebDriver webDriver, String locator, String tag) {
+		if (webDriver == null) {
+			return null;
+		}
+		LruCache<String, WebElement> cache = cachesByWebDriver.get(webDriver);
+		WebElement element = cache != null ? cache.get(createKey(locator, tag)) : null;
+		if (element != null) {
+			hits.incrementAndGet();
+			servedFromCache.set(Boolean.TRUE);
+		} else {
+			misses.incrementAndGet();
+		}
+		return element;
+	}
+
+	public static void put(WebDriver webDriver, String locator, String tag, WebElement element) {
+		if (webDriver == null) {
+			return;
+		}
+		LruCache<String, WebElement> cache;
+		synchronized (cachesByWebDriver) {
+			cache = cachesByWebDriver.get(webDriver);
+			if (cache == null) {
+				cache = new LruCache<String, WebElement>(ELEMENT_CACHE_SIZE);
+				cachesByWebDriver.put(webDriver, cache);
+			}
+		}
+		cache.put(createKey(locator, tag), element);
+	}
+
+	public static void invalidate(WebDriver webDriver) {
+		if (webDriver != null) {
+			cachesByWebDriver.remove(webDriver);
+		}
+	}
+
+	public static void clearAll() {
+		cachesByWebDriver.clear();
+	}
+
+	public static long getHits() {
+		return hits.get();
+	}
+
+	public static long getMisses() {
+		return misses.get();
+	}
+
+	public static boolean wasServedFromCache() {
+		return Boolean.TRUE.equals(servedFromCache.get());
+	}
+
+	public static void resetServedFromCache() {
+		servedFromCache.remove();
+	}
+
+	protected static String createKey(String locator, String tag) {
+		return tag == null ? "\u0000" + locator : tag + "\u0000" + locator;
+	}
+}
@@ -1,26 +1,153 @@
 package com.github.markusbernhardt.selenium2library.locators;
 
 import java.util.ArrayList;
-import java.util.Hashtable;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
-import org.python.util.PythonInterpreter;
 
 import com.github.markusbernhardt.selenium2library.Selenium2LibraryNonFatalException;
 import com.github.markusbernhardt.selenium2library.keywords.Element;
+import com.github.markusbernhardt.selenium2library.utils.LruCache;
 import com.github.markusbernhardt.selenium2library.utils.Python;
+import com.github.markusbernhardt.selenium2library.utils.RobotLogger;
 
 public class ElementFinder {
 
-	protected final static Hashtable<String, CustomStrategy> registeredLocationStrategies = new Hashtable<String, CustomStrategy>();
+	protected final static ConcurrentHashMap<String, CustomStrategy> registeredLocationStrategies = new ConcurrentHashMap<String, CustomStrategy>();
+
+	/**
+	 * Maximum number of compiled locators kept in the cache
+	 */
+	protected final static int COMPILED_LOCATOR_CACHE_SIZE = 4096;
+
+	/**
+	 * Cache of already parsed (locator, tag) combinations
+	 */
+	protected final static LruCache<String, CompiledLocator> compiledLocatorCache = new LruCache<String, CompiledLocator>(
+			COMPILED_LOCATOR_CACHE_SIZE);
+
+	/**
+	 * Maximum number of key attribute XPath expressions kept in the cache
+	 */
+	protected final static int KEY_ATTRS_XPATH_CACHE_SIZE = 4096;
+
+	/**
+	 * Cache of key attribute XPath expressions by tag, key attributes,
+	 * criteria, constraints and base URL
+	 */
+	protected final static LruCache<String, String> keyAttrsXpathCache = new LruCache<String, String>(
+			KEY_ATTRS_XPATH_CACHE_SIZE);
+
+	/**
+	 * Base URL of the current window by web driver. Invalidated by keywords
+	 * that navigate or switch the window.
+	 */
+	protected final static Map<WebDriver, String> baseUrls = Collections
+			.synchronizedMap(new WeakHashMap<WebDriver, String>());
+
+	/**
+	 * Resolve the identifier strategy with two calls (by id, then by name)
+	 * instead of a single XPath union
+	 */
+	protected static volatile boolean legacyIdentifierStrategy = false;
+
+	/**
+	 * Filter tag constrained candidates with one script call in the browser
+	 * instead of one call per candidate and constraint
+	 */
+	protected static volatile boolean browserSideFiltering = true;
+
+	/**
+	 * Keeps the candidates matching the tag (arguments[1]) and the constraints
+	 * (arguments[2], alternating names and values) in document order. Like
+	 * WebElement.getAttribute() properties are preferred over attributes.
+	 */
+	protected final static String FILTER_ELEMENTS_SCRIPT = "var elements = arguments[0], tag = arguments[1], "
+			+ "constraints = arguments[2], result = [];"
+			+ "for (var i = 0; i < elements.length; i++) {"
+			+ "  var element = elements[i], matches = element.tagName.toLowerCase() == tag;"
+			+ "  for (var j = 0; matches && j < constraints.length; j += 2) {"
+			+ "    var value = constraints[j] in element ? element[constraints[j]] : element.getAttribute(constraints[j]);"
+			+ "    matches = value != null && String(value) == constraints[j + 1];"
+			+ "  }"
+			+ "  if (matches) {"
+			+ "    result.push(element);"
+			+ "  }"
+			+ "}"
+			+ "return result;";
+
+	/**
+	 * Resolves a batch of translated locators (arguments[0], alternating kind
+	 * and expression) in one call. Returns per locator either the list of
+	 * elements, the count of elements (arguments[1] is true) or null, if the
+	 * locator could not be resolved in the browser.
+	 */
+	protected final static String FIND_BATCH_SCRIPT = "var locators = arguments[0], countOnly = arguments[1], results = [];"
+			+ "for (var i = 0; i < locators.length; i += 2) {"
+			+ "  var kind = locators[i], expression = locators[i + 1], found = null;"
+			+ "  try {"
+			+ "    if (kind == 'css') {"
+			+ "      found = document.querySelectorAll(expression);"
+			+ "    } else if (kind == 'tag') {"
+			+ "      found = document.getElementsByTagName(expression);"
+			+ "    } else if (kind == 'jquery' && window.jQuery) {"
+			+ "      found = window.jQuery(expression).get();"
+			+ "    } else if (kind == 'xpath' && document.evaluate) {"
+			+ "      var snapshot = document.evaluate(expression, document, null, 7, null);"
+			+ "      found = [];"
+			+ "      for (var j = 0; j < snapshot.snapshotLength; j++) {"
+			+ "        if (snapshot.snapshotItem(j).nodeType == 1) {"
+			+ "          found.push(snapshot.snapshotItem(j));"
+			+ "        }"
+			+ "      }"
+			+ "    }"
+			+ "  } catch (e) {"
+			+ "    found = null;"
+			+ "  }"
+			+ "  if (found == null) {"
+			+ "    results.push(null);"
+			+ "  } else if (countOnly) {"
+			+ "    results.push(found.length);"
+			+ "  } else {"
+			+ "    var list = [];"
+			+ "    for (var j = 0; j < found.length; j++) {"
+			+ "      list.push(found[j]);"
+			+ "    }"
+			+ "    results.push(list);"
+			+ "  }"
+			+ "}"
+			+ "return results;";
+
+	/**
+	 * Lookup of the standard strategies by their upper case locator prefix
+	 */
+	protected final static Map<String, StrategyEnum> standardStrategies = new HashMap<String, StrategyEnum>();
+
+	/**
+	 * Lookup of the special key attributes by their upper case tag name
+	 */
+	protected final static Map<String, KeyAttrs> keyAttrsByTag = new HashMap<String, KeyAttrs>();
+
+	static {
+		for (StrategyEnum strategy : StrategyEnum.values()) {
+			standardStrategies.put(strategy.name(), strategy);
+		}
+		for (KeyAttrs keyAttrs : KeyAttrs.values()) {
+			keyAttrsByTag.put(keyAttrs.name(), keyAttrs);
+		}
+	}
 
 	protected enum KeyAttrs {
 		DEFAULT("@id,@name"), A("@id,@name,@href,normalize-space(descendant-or-self::text())"), IMG(
@@ -29,13 +156,20 @@ public class ElementFinder {
 
 		protected String[] keyAttrs;
 
+		protected boolean urlAttrs;
+
 		KeyAttrs(String keyAttrs) {
 			this.keyAttrs = keyAttrs.split(",");
+			this.urlAttrs = keyAttrs.contains("@src") || keyAttrs.contains("@href");
 		}
 
 		public String[] getKeyAttrs() {
 			return keyAttrs;
 		}
+
+		public boolean hasUrlAttrs() {
+			return urlAttrs;
+		}
 	}
 
 	protected interface Strategy {
@@ -53,35 +187,71 @@ public class ElementFinder {
 				}
 				return findByKeyAttrs(webDriver, findByCoordinates);
 			}
+
+			@Override
+			protected By createBy(String criteria) {
+				if (criteria.startsWith("//")) {
+					return By.xpath(criteria);
+				}
+				return null;
+			}
 		},
 		IDENTIFIER {
 
 			@Override
 			public List<WebElement> findBy(WebDriver webDriver, FindByCoordinates findByCoordinates) {
-				List<WebElement> elements = webDriver.findElements(By.id(findByCoordinates.criteria));
-				elements.addAll(webDriver.findElements(By.name(findByCoordinates.criteria)));
-				return filterElements(elements, findByCoordinates);
+				if (findByCoordinates.by == null) {
+					// Compatibility mode: two calls, by id first, then by name
+					List<WebElement> elements = webDriver.findElements(By.id(findByCoordinates.criteria));
+					elements.addAll(webDriver.findElements(By.name(findByCoordinates.criteria)));
+					return filterElements(webDriver, elements, findByCoordinates);
+				}
+				return filterElements(webDriver, webDriver.findElements(findByCoordinates.by), findByCoordinates);
+			}
+
+			@Override
+			protected By createBy(String criteria) {
+				if (legacyIdentifierStrategy) {
+					return null;
+				}
+				String xpathCriteria = Element.escapeXpathValue(criteria);
+				return By.xpath(String.format("//*[@id=%s or @name=%s]", xpathCriteria, xpathCriteria));
 			}
 		},
 		ID {
 
 			@Override
 			public List<WebElement> findBy(WebDriver webDriver, FindByCoordinates findByCoordinates) {
-				return filterElements(webDriver.findElements(By.id(findByCoordinates.criteria)), findByCoordinates);
+				return filterElements(webDriver, webDriver.findElements(findByCoordinates.by), findByCoordinates);
+			}
+
+			@Override
+			protected By createBy(String criteria) {
+				return By.id(criteria);
 			}
 		},
 		NAME {
 
 			@Override
 			public List<WebElement> findBy(WebDriver webDriver, FindByCoordinates findByCoordinates) {
-				return filterElements(webDriver.findElements(By.name(findByCoordinates.criteria)), findByCoordinates);
+				return filterElements(webDriver, webDriver.findElements(findByCoordinates.by), findByCoordinates);
+			}
+
+			@Override
+			protected By createBy(String criteria) {
+				return By.name(criteria);
 			}
 		},
 		XPATH {
 
 			@Override
 			public List<WebElement> findBy(WebDriver webDriver, FindByCoordinates findByCoordinates) {
-				return filterElements(webDriver.findElements(By.xpath(findByCoordinates.criteria)), findByCoordinates);
+				return filterElements(webDriver, webDriver.findElements(findByCoordinates.by), findByCoordinates);
+			}
+
+			@Override
+			protected By createBy(String criteria) {
+				return By.xpath(criteria);
 			}
 		},
 		DOM {
@@ -90,30 +260,43 @@ public class ElementFinder {
 			public List<WebElement> findBy(WebDriver webDriver, FindByCoordinates findByCoordinates) {
 				Object result = ((JavascriptExecutor) webDriver).executeScript(String.format("return %s;",
 						findByCoordinates.criteria));
-				return filterElements(toList(result), findByCoordinates);
+				return filterElements(webDriver, toList(result), findByCoordinates);
 			}
 		},
 		LINK {
 
 			@Override
 			public List<WebElement> findBy(WebDriver webDriver, FindByCoordinates findByCoordinates) {
-				return filterElements(webDriver.findElements(By.linkText(findByCoordinates.criteria)),
-						findByCoordinates);
+				return filterElements(webDriver, webDriver.findElements(findByCoordinates.by), findByCoordinates);
+			}
+
+			@Override
+			protected By createBy(String criteria) {
+				return By.linkText(criteria);
 			}
 		},
 		CSS {
 
 			@Override
 			public List<WebElement> findBy(WebDriver webDriver, FindByCoordinates findByCoordinates) {
-				return filterElements(webDriver.findElements(By.cssSelector(findByCoordinates.criteria)),
-						findByCoordinates);
+				return filterElements(webDriver, webDriver.findElements(findByCoordinates.by), findByCoordinates);
+			}
+
+			@Override
+			protected By createBy(String criteria) {
+				return By.cssSelector(criteria);
 			}
 		},
 		TAG {
 
 			@Override
 			public List<WebElement> findBy(WebDriver webDriver, FindByCoordinates findByCoordinates) {
-				return filterElements(webDriver.findElements(By.tagName(findByCoordinates.criteria)), findByCoordinates);
+				return filterElements(webDriver, webDriver.findElements(findByCoordinates.by), findByCoordinates);
+			}
+
+			@Override
+			protected By createBy(String criteria) {
+				return By.tagName(criteria);
 			}
 		},
 		JQUERY {
@@ -135,14 +318,39 @@ public class ElementFinder {
 
 		};
 
+		/**
+		 * Creates the Selenium By for the given criteria, if this strategy
+		 * can be expressed as one.
+		 * 
+		 * @param criteria
+		 *            the criteria part of the locator
+		 * @return the By or null
+		 */
+		protected By createBy(String criteria) {
+			return null;
+		}
 	}
 
 	protected static List<WebElement> findByJQuerySizzle(WebDriver webDriver, FindByCoordinates findByCoordinates) {
-		String js = String.format("return jQuery('%s').get();", findByCoordinates.criteria.replace("'", "\\'"));
-
-		Object o = ((JavascriptExecutor) webDriver).executeScript(js);
+		Object o = LocatorRuntime.call(webDriver, "select", findByCoordinates.criteria);
 		List<WebElement> list = toList(o);
-		return filterElements(list, findByCoordinates);
+		return filterElements(webDriver, list, findByCoordinates);
+	}
+
+	protected static List<WebElement> filterElements(WebDriver webDriver, List<WebElement> elements,
+			FindByCoordinates findByCoordinates) {
+		if (findByCoordinates.tag == null || elements.isEmpty()) {
+			return elements;
+		}
+
+		if (browserSideFiltering && webDriver instanceof JavascriptExecutor) {
+			try {
+				return filterElementsInBrowser((JavascriptExecutor) webDriver, elements, findByCoordinates);
+			} catch (UnsupportedOperationException e) {
+				// JavaScript disabled, e.g. HtmlUnit. Filter in Java
+			}
+		}
+		return filterElements(elements, findByCoordinates);
 	}
 
 	protected static List<WebElement> filterElements(List<WebElement> elements, FindByCoordinates findByCoordinates) {
@@ -159,6 +367,19 @@ public class ElementFinder {
 		return result;
 	}
 
+	protected static List<WebElement> filterElementsInBrowser(JavascriptExecutor javascriptExecutor,
+			List<WebElement> elements, FindByCoordinates findByCoordinates) {
+		List<String> constraints = new ArrayList<String>();
+		if (findByCoordinates.constraints != null) {
+			for (Entry<String, String> entry : findByCoordinates.constraints.entrySet()) {
+				constraints.add(entry.getKey());
+				constraints.add(entry.getValue());
+			}
+		}
+		return toList(javascriptExecutor.executeScript(FILTER_ELEMENTS_SCRIPT, elements, findByCoordinates.tag,
+				constraints));
+	}
+
 	protected static boolean elementMatches(WebElement element, FindByCoordinates findByCoordinates) {
 		if (!element.getTagName().toLowerCase().equals(findByCoordinates.tag)) {
 			return false;
@@ -178,12 +399,26 @@ public class ElementFinder {
 	protected static List<WebElement> findByKeyAttrs(WebDriver webDriver, FindByCoordinates findByCoordinates) {
 		KeyAttrs keyAttrs = KeyAttrs.DEFAULT;
 		if (findByCoordinates.tag != null) {
-			try {
-				keyAttrs = KeyAttrs.valueOf(findByCoordinates.tag.trim().toUpperCase());
-			} catch (IllegalArgumentException e) {
-				// No special keyAttrs available for this tag
+			KeyAttrs tagKeyAttrs = keyAttrsByTag.get(findByCoordinates.tag.trim().toUpperCase());
+			if (tagKeyAttrs != null) {
+				keyAttrs = tagKeyAttrs;
 			}
 		}
+		String baseUrl = keyAttrs.hasUrlAttrs() ? getBaseUrl(webDriver) : null;
+
+		String key = String.format("%s\u0000%s\u0000%s\u0000%s\u0000%s", keyAttrs, findByCoordinates.tag,
+				findByCoordinates.criteria, findByCoordinates.constraints, baseUrl);
+		String xpath = keyAttrsXpathCache.get(key);
+		if (xpath == null) {
+			xpath = buildKeyAttrsXpath(keyAttrs, findByCoordinates, baseUrl);
+			keyAttrsXpathCache.put(key, xpath);
+		}
+
+		return webDriver.findElements(By.xpath(xpath));
+	}
+
+	protected static String buildKeyAttrsXpath(KeyAttrs keyAttrs, FindByCoordinates findByCoordinates,
+			String baseUrl) {
 		String xpathCriteria = Element.escapeXpathValue(findByCoordinates.criteria);
 		String xpathTag = findByCoordinates.tag;
 		if (findByCoordinates.tag == null) {
@@ -199,14 +434,12 @@ public class ElementFinder {
 		for (String attr : keyAttrs.getKeyAttrs()) {
 			xpathSearchers.add(String.format("%s=%s", attr, xpathCriteria));
 		}
-		xpathSearchers.addAll(getAttrsWithUrl(webDriver, keyAttrs, findByCoordinates.criteria));
-		String xpath = String.format("//%s[%s(%s)]", xpathTag, Python.join(" and ", xpathConstraints)
+		xpathSearchers.addAll(getAttrsWithUrl(baseUrl, keyAttrs, findByCoordinates.criteria));
+		return String.format("//%s[%s(%s)]", xpathTag, Python.join(" and ", xpathConstraints)
 				+ (xpathConstraints.size() > 0 ? " and " : ""), Python.join(" or ", xpathSearchers));
-
-		return webDriver.findElements(By.xpath(xpath));
 	}
 
-	protected static List<String> getAttrsWithUrl(WebDriver webDriver, KeyAttrs keyAttrs, String criteria) {
+	protected static List<String> getAttrsWithUrl(String baseUrl, KeyAttrs keyAttrs, String criteria) {
 		List<String> attrs = new ArrayList<String>();
 		String url = null;
 		String xpathUrl = null;
@@ -215,7 +448,7 @@ public class ElementFinder {
 			for (String keyAttr : keyAttrs.getKeyAttrs()) {
 				if (attr.equals(keyAttr)) {
 					if (url == null || xpathUrl == null) {
-						url = getBaseUrl(webDriver) + "/" + criteria;
+						url = baseUrl + "/" + criteria;
 						xpathUrl = Element.escapeXpathValue(url);
 					}
 					attrs.add(String.format("%s=%s", attr, xpathUrl));
@@ -226,16 +459,72 @@ public class ElementFinder {
 	}
 
 	protected static String getBaseUrl(WebDriver webDriver) {
-		String url = webDriver.getCurrentUrl();
+		String url = baseUrls.get(webDriver);
+		if (url != null) {
+			return url;
+		}
+
+		url = webDriver.getCurrentUrl();
 		int lastIndex = url.lastIndexOf('/');
 		if (lastIndex != -1) {
 			url = url.substring(0, lastIndex);
 		}
+		baseUrls.put(webDriver, url);
 		return url;
 	}
 
+	/**
+	 * Forget the base URL memorized for the given web driver. Has to be called
+	 * whenever the current window might show another document.
+	 * 
+	 * @param webDriver
+	 *            the web driver that navigated or switched its window
+	 */
+	public static void invalidateBaseUrl(WebDriver webDriver) {
+		if (webDriver != null) {
+			baseUrls.remove(webDriver);
+		}
+	}
+
 	public static void addLocationStrategy(String strategyName, String functionDefinition, String delimiter) {
-		registeredLocationStrategies.put(strategyName.toUpperCase(), new CustomStrategy(functionDefinition, delimiter));
+		registeredLocationStrategies.put(strategyName.toUpperCase(), new CustomStrategy(strategyName.toUpperCase(),
+				functionDefinition, delimiter));
+		// A new prefix might change the meaning of already compiled locators
+		compiledLocatorCache.clear();
+	}
+
+	public static boolean isBrowserSideFiltering() {
+		return browserSideFiltering;
+	}
+
+	public static void setBrowserSideFiltering(boolean browserSideFiltering) {
+		ElementFinder.browserSideFiltering = browserSideFiltering;
+	}
+
+	public static boolean isLegacyIdentifierStrategy() {
+		return legacyIdentifierStrategy;
+	}
+
+	public static void setLegacyIdentifierStrategy(boolean legacyIdentifierStrategy) {
+		ElementFinder.legacyIdentifierStrategy = legacyIdentifierStrategy;
+		// The By of compiled identifier locators depends on this switch
+		compiledLocatorCache.clear();
+	}
+
+	public static long getLocatorCacheHits() {
+		return compiledLocatorCache.getHits();
+	}
+
+	public static long getLocatorCacheMisses() {
+		return compiledLocatorCache.getMisses();
+	}
+
+	public static LruCache<String, CompiledLocator> getLocatorCache() {
+		return compiledLocatorCache;
+	}
+
+	public static void clearLocatorCache() {
+		compiledLocatorCache.clear();
 	}
 
 	public static List<WebElement> find(WebDriver webDriver, String locator) {
@@ -250,25 +539,177 @@ public class ElementFinder {
 			throw new Selenium2LibraryNonFatalException("ElementFinder.find: locator is null.");
 		}
 
+		CompiledLocator compiledLocator = compile(locator, tag);
+		return compiledLocator.strategy.findBy(webDriver, compiledLocator.findByCoordinates);
+	}
+
+	protected static CompiledLocator compile(String locator, String tag) {
+		String key = tag == null ? "\u0000" + locator : tag + "\u0000" + locator;
+		CompiledLocator compiledLocator = compiledLocatorCache.get(key);
+		if (compiledLocator != null) {
+			return compiledLocator;
+		}
+
 		FindByCoordinates findByCoordinates = new FindByCoordinates();
 		Strategy strategy = parseLocator(findByCoordinates, locator);
 		parseTag(findByCoordinates, strategy, tag);
-		return strategy.findBy(webDriver, findByCoordinates);
+		if (findByCoordinates.constraints != null) {
+			findByCoordinates.constraints = Collections.unmodifiableMap(findByCoordinates.constraints);
+		}
+		if (strategy instanceof StrategyEnum) {
+			findByCoordinates.by = ((StrategyEnum) strategy).createBy(findByCoordinates.criteria);
+		}
+		compiledLocator = new CompiledLocator(strategy, findByCoordinates);
+		compiledLocatorCache.put(key, compiledLocator);
+		return compiledLocator;
 	}
 
-	protected static ThreadLocal<PythonInterpreter> loggingPythonInterpreter = new ThreadLocal<PythonInterpreter>() {
+	/**
+	 * Finds the elements of all given locators. All locators, that can be
+	 * expressed as CSS, XPath, tag name or jQuery expression, are resolved with
+	 * a single script call. All other locators are resolved one by one.
+	 * 
+	 * @param webDriver
+	 *            the web driver to search in
+	 * @param locators
+	 *            the locators to resolve
+	 * @return the found elements per locator
+	 */
+	public static List<List<WebElement>> findBatch(WebDriver webDriver, List<String> locators) {
+		List<Object> results = resolveBatch(webDriver, locators, false);
+		List<List<WebElement>> elements = new ArrayList<List<WebElement>>();
+		for (int i = 0; i < locators.size(); i++) {
+			Object result = results.get(i);
+			if (result != null) {
+				elements.add(toList(result));
+			} else {
+				elements.add(find(webDriver, locators.get(i)));
+			}
+		}
+		return elements;
+	}
 
-		@Override
-		protected PythonInterpreter initialValue() {
-			PythonInterpreter pythonInterpreter = new PythonInterpreter();
-			pythonInterpreter.exec("from robot.libraries.BuiltIn import BuiltIn; from robot.api import logger;");
-			return pythonInterpreter;
+	/**
+	 * Counts the elements of all given locators. All locators, that can be
+	 * expressed as CSS, XPath, tag name or jQuery expression, are counted with
+	 * a single script call. All other locators are resolved one by one.
+	 * 
+	 * @param webDriver
+	 *            the web driver to search in
+	 * @param locators
+	 *            the locators to count
+	 * @return the number of found elements per locator
+	 */
+	public static List<Integer> countBatch(WebDriver webDriver, List<String> locators) {
+		List<Object> results = resolveBatch(webDriver, locators, true);
+		List<Integer> counts = new ArrayList<Integer>();
+		for (int i = 0; i < locators.size(); i++) {
+			Object result = results.get(i);
+			if (result instanceof Number) {
+				counts.add(((Number) result).intValue());
+			} else {
+				counts.add(find(webDriver, locators.get(i)).size());
+			}
 		}
-	};
+		return counts;
+	}
+
+	protected static List<Object> resolveBatch(WebDriver webDriver, List<String> locators, boolean countOnly) {
+		if (webDriver == null) {
+			throw new Selenium2LibraryNonFatalException("ElementFinder.findBatch: webDriver is null.");
+		}
+
+		List<Object> results = new ArrayList<Object>();
+		List<String> translatedLocators = new ArrayList<String>();
+		List<Integer> translatedIndexes = new ArrayList<Integer>();
+		for (int i = 0; i < locators.size(); i++) {
+			if (locators.get(i) == null) {
+				throw new Selenium2LibraryNonFatalException("ElementFinder.findBatch: locator is null.");
+			}
+			results.add(null);
+			String[] translatedLocator = translateForBatch(compile(locators.get(i), null));
+			if (translatedLocator != null) {
+				translatedLocators.add(translatedLocator[0]);
+				translatedLocators.add(translatedLocator[1]);
+				translatedIndexes.add(i);
+			}
+		}
+
+		if (translatedIndexes.size() != 0 && webDriver instanceof JavascriptExecutor) {
+			try {
+				Object batch = ((JavascriptExecutor) webDriver).executeScript(FIND_BATCH_SCRIPT, translatedLocators,
+						countOnly);
+				if (batch instanceof List<?>) {
+					List<?> batchResults = (List<?>) batch;
+					for (int i = 0; i < translatedIndexes.size() && i < batchResults.size(); i++) {
+						results.set(translatedIndexes.get(i), batchResults.get(i));
+					}
+				}
+			} catch (WebDriverException e) {
+				// Fall back to resolving locator by locator
+			} catch (UnsupportedOperationException e) {
+				// JavaScript is disabled. Fall back to resolving locator by
+				// locator
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Translates the locator to the kind and expression understood by the
+	 * batch script and the locator runtime.
+	 * 
+	 * @param locator
+	 *            the locator to translate
+	 * @return kind and expression or null, if the locator can only be resolved
+	 *         by the web driver
+	 */
+	public static String[] translateForBrowser(String locator) {
+		return translateForBatch(compile(locator, null));
+	}
+
+	/**
+	 * Translates the compiled locator to the kind and expression understood by
+	 * the batch script.
+	 * 
+	 * @param compiledLocator
+	 *            the locator to translate
+	 * @return kind and expression or null, if not supported in a batch
+	 */
+	protected static String[] translateForBatch(CompiledLocator compiledLocator) {
+		FindByCoordinates findByCoordinates = compiledLocator.findByCoordinates;
+		if (!(compiledLocator.strategy instanceof StrategyEnum)) {
+			return null;
+		}
+		String xpathCriteria = Element.escapeXpathValue(findByCoordinates.criteria);
+		switch ((StrategyEnum) compiledLocator.strategy) {
+		case DEFAULT:
+			if (findByCoordinates.criteria.startsWith("//")) {
+				return new String[] { "xpath", findByCoordinates.criteria };
+			}
+			return new String[] { "xpath", buildKeyAttrsXpath(KeyAttrs.DEFAULT, findByCoordinates, null) };
+		case IDENTIFIER:
+			return new String[] { "xpath", String.format("//*[@id=%s or @name=%s]", xpathCriteria, xpathCriteria) };
+		case ID:
+			return new String[] { "xpath", String.format("//*[@id=%s]", xpathCriteria) };
+		case NAME:
+			return new String[] { "xpath", String.format("//*[@name=%s]", xpathCriteria) };
+		case XPATH:
+			return new String[] { "xpath", findByCoordinates.criteria };
+		case CSS:
+			return new String[] { "css", findByCoordinates.criteria };
+		case TAG:
+			return new String[] { "tag", findByCoordinates.criteria };
+		case JQUERY:
+		case SIZZLE:
+			return new String[] { "jquery", findByCoordinates.criteria };
+		default:
+			return null;
+		}
+	}
 
 	protected static void warn(String msg) {
-		loggingPythonInterpreter.get().exec(
-				String.format("logger.warn('%s');", msg.replace("'", "\\'").replace("\n", "\\n")));
+		RobotLogger.warn(msg);
 	}
 
 	protected static Strategy parseLocator(FindByCoordinates findByCoordinates, String locator) {
@@ -284,9 +725,10 @@ public class ElementFinder {
 
 		Strategy strategy = StrategyEnum.DEFAULT;
 		if (prefix != null) {
-			try {
-				strategy = StrategyEnum.valueOf(prefix);
-			} catch (IllegalArgumentException e) {
+			StrategyEnum standardStrategy = standardStrategies.get(prefix);
+			if (standardStrategy != null) {
+				strategy = standardStrategy;
+			} else {
 				// No standard locator type. Look for custom strategy
 				CustomStrategy customStrategy = registeredLocationStrategies.get(prefix);
 				if (customStrategy != null) {
@@ -347,41 +789,117 @@ public class ElementFinder {
 		String criteria;
 		String tag;
 		Map<String, String> constraints;
+		By by;
+	}
+
+	/**
+	 * The result of parsing a (locator, tag) combination. Shared between all
+	 * threads using the same combination and therefore never modified after
+	 * construction.
+	 */
+	public static class CompiledLocator {
+
+		protected final Strategy strategy;
+
+		protected final FindByCoordinates findByCoordinates;
+
+		protected CompiledLocator(Strategy strategy, FindByCoordinates findByCoordinates) {
+			this.strategy = strategy;
+			this.findByCoordinates = findByCoordinates;
+		}
+
+		public String getCriteria() {
+			return findByCoordinates.criteria;
+		}
+
+		public String getTag() {
+			return findByCoordinates.tag;
+		}
+
+		public Map<String, String> getConstraints() {
+			return findByCoordinates.constraints;
+		}
+
+		public By getBy() {
+			return findByCoordinates.by;
+		}
 	}
 
 	protected static class CustomStrategy implements Strategy {
 
+		/**
+		 * Returned by the runtime, if the strategy is not defined in the
+		 * current document yet
+		 */
+		protected final static String STRATEGY_MISSING = "__selenium2library_strategy_missing__";
+
+		/**
+		 * Returned by the runtime, if the page does not allow compiling the
+		 * definition of the strategy
+		 */
+		protected final static String DEFINITION_FAILED = "__selenium2library_definition_failed__";
+
+		protected String strategyName;
+
 		protected String functionDefinition;
 
 		protected String delimiter;
 
-		public CustomStrategy(String functionDefinition, String delimiter) {
+		/**
+		 * Identifies this definition of the strategy in the page-side registry
+		 */
+		protected String version;
+
+		/**
+		 * Send the function definition with every call, e.g. if the page does
+		 * not allow compiling it once
+		 */
+		protected volatile boolean sendDefinition;
+
+		public CustomStrategy(String strategyName, String functionDefinition, String delimiter) {
+			this.strategyName = strategyName;
 			this.functionDefinition = functionDefinition;
 			this.delimiter = delimiter;
+			this.version = String.format("%08x-%d", functionDefinition.hashCode(), functionDefinition.length());
 		}
 
 		@Override
 		public List<WebElement> findBy(final WebDriver webDriver, final FindByCoordinates findByCoordinates) {
-			return filterElements(webDriver.findElements(new By() {
+			return filterElements(webDriver, webDriver.findElements(new By() {
 
 				@Override
 				public List<WebElement> findElements(SearchContext context) {
-					Object[] arguments = null;
+					List<String> arguments = new ArrayList<String>();
 					if (delimiter == null) {
-						arguments = new Object[1];
-						arguments[0] = findByCoordinates.criteria;
+						arguments.add(findByCoordinates.criteria);
 					} else {
-						String[] splittedCriteria = findByCoordinates.criteria.split(delimiter);
-						arguments = new Object[splittedCriteria.length];
-						for (int i = 0; i < splittedCriteria.length; i++) {
-							arguments[i] = splittedCriteria[i];
+						for (String argument : findByCoordinates.criteria.split(delimiter)) {
+							arguments.add(argument);
 						}
 					}
-					Object o = ((JavascriptExecutor) webDriver).executeScript(functionDefinition, arguments);
-					return toList(o);
+					return toList(callStrategy(webDriver, arguments));
 				}
 
 			}), findByCoordinates);
 		}
+
+		protected Object callStrategy(WebDriver webDriver, List<String> arguments) {
+			if (!sendDefinition) {
+				Object o = LocatorRuntime.call(webDriver, "callStrategy", strategyName, version, arguments);
+				if (!STRATEGY_MISSING.equals(o)) {
+					return o;
+				}
+				// New document or new definition. Install it once.
+				o = LocatorRuntime.call(webDriver, "defineStrategy", strategyName, version, functionDefinition,
+						arguments);
+				if (!DEFINITION_FAILED.equals(o)) {
+					return o;
+				}
+				// E.g. a content security policy forbids compiling the
+				// definition in the page. Send it with every call.
+				sendDefinition = true;
+			}
+			return ((JavascriptExecutor) webDriver).executeScript(functionDefinition, arguments.toArray());
+		}
 	}
 }
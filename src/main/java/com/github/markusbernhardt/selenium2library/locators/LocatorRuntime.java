@@ -0,0 +1,176 @@
+package com.github.markusbernhardt.selenium2library.locators;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import com.github.markusbernhardt.selenium2library.Selenium2LibraryFatalException;
+import com.github.markusbernhardt.selenium2library.Selenium2LibraryNonFatalException;
+
+/**
+ * Calls the functions of the locator runtime (LocatorRuntime.js), which is
+ * injected once per document as window.__selenium2library.<br>
+ * <br>
+ * Each call first sends only a short, constant invocation script. Only if the
+ * runtime is missing, e.g. because the browser navigated to another document,
+ * the runtime source is sent together with the invocation.
+ */
+public class LocatorRuntime {
+
+	/**
+	 * Returned by the invocation script, if the runtime is not injected yet
+	 */
+	protected final static String RUNTIME_MISSING = "__selenium2library_runtime_missing__";
+
+	/**
+	 * The source of the runtime
+	 */
+	protected final static String RUNTIME_SOURCE = loadResource("LocatorRuntime.js");
+
+	/**
+	 * Invocation scripts by runtime function name
+	 */
+	protected final static Map<String, String> invocations = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Invocation scripts including the runtime source by runtime function name
+	 */
+	protected final static Map<String, String> injectingInvocations = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Asynchronous invocation scripts by runtime function name
+	 */
+	protected final static Map<String, String> asyncInvocations = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Asynchronous invocation scripts including the runtime source by runtime
+	 * function name
+	 */
+	protected final static Map<String, String> injectingAsyncInvocations = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Calls the given function of the runtime with the given arguments.
+	 *
+	 * @param webDriver
+	 *            the web driver to execute the function in
+	 * @param function
+	 *            the name of the runtime function
+	 * @param arguments
+	 *            the arguments of the runtime function
+	 * @return the return value of the runtime function
+	 */
+	public static Object call(WebDriver webDriver, String function, Object... arguments) {
+		if (!(webDriver instanceof JavascriptExecutor)) {
+			throw new Selenium2LibraryNonFatalException("LocatorRuntime.call: webDriver can not execute JavaScript.");
+		}
+		JavascriptExecutor javascriptExecutor = (JavascriptExecutor) webDriver;
+
+		Object result = javascriptExecutor.executeScript(getInvocation(function), arguments);
+		if (RUNTIME_MISSING.equals(result)) {
+			result = javascriptExecutor.executeScript(getInjectingInvocation(function), arguments);
+		}
+		return result;
+	}
+
+	/**
+	 * Calls the given asynchronous function of the runtime with the given
+	 * arguments. The function gets a callback as additional last argument.
+	 * The call must complete within the script timeout of the web driver.
+	 *
+	 * @param webDriver
+	 *            the web driver to execute the function in
+	 * @param function
+	 *            the name of the runtime function
+	 * @param arguments
+	 *            the arguments of the runtime function
+	 * @return the value passed to the callback
+	 */
+	public static Object callAsync(WebDriver webDriver, String function, Object... arguments) {
+		if (!(webDriver instanceof JavascriptExecutor)) {
+			throw new Selenium2LibraryNonFatalException(
+					"LocatorRuntime.callAsync: webDriver can not execute JavaScript.");
+		}
+		JavascriptExecutor javascriptExecutor = (JavascriptExecutor) webDriver;
+
+		Object result = javascriptExecutor.executeAsyncScript(getAsyncInvocation(function), arguments);
+		if (RUNTIME_MISSING.equals(result)) {
+			result = javascriptExecutor.executeAsyncScript(getInjectingAsyncInvocation(function), arguments);
+		}
+		return result;
+	}
+
+	protected static String getInvocation(String function) {
+		String invocation = invocations.get(function);
+		if (invocation == null) {
+			invocation = String.format("var runtime = window.__selenium2library;"
+					+ "if (!runtime) { return '%s'; }"
+					+ "return runtime.%s.apply(runtime, arguments);", RUNTIME_MISSING, function);
+			invocations.put(function, invocation);
+		}
+		return invocation;
+	}
+
+	protected static String getInjectingInvocation(String function) {
+		String invocation = injectingInvocations.get(function);
+		if (invocation == null) {
+			invocation = String.format("%s\nvar runtime = window.__selenium2library;"
+					+ "return runtime.%s.apply(runtime, arguments);", RUNTIME_SOURCE, function);
+			injectingInvocations.put(function, invocation);
+		}
+		return invocation;
+	}
+
+	protected static String getAsyncInvocation(String function) {
+		String invocation = asyncInvocations.get(function);
+		if (invocation == null) {
+			invocation = String.format("var callback = arguments[arguments.length - 1];"
+					+ "var runtime = window.__selenium2library;"
+					+ "if (!runtime) { callback('%s'); return; }"
+					+ "var args = Array.prototype.slice.call(arguments, 0, arguments.length - 1);"
+					+ "runtime.%s.apply(runtime, args.concat([ callback ]));", RUNTIME_MISSING, function);
+			asyncInvocations.put(function, invocation);
+		}
+		return invocation;
+	}
+
+	protected static String getInjectingAsyncInvocation(String function) {
+		String invocation = injectingAsyncInvocations.get(function);
+		if (invocation == null) {
+			invocation = String.format("%s\nvar callback = arguments[arguments.length - 1];"
+					+ "var runtime = window.__selenium2library;"
+					+ "var args = Array.prototype.slice.call(arguments, 0, arguments.length - 1);"
+					+ "runtime.%s.apply(runtime, args.concat([ callback ]));", RUNTIME_SOURCE, function);
+			injectingAsyncInvocations.put(function, invocation);
+		}
+		return invocation;
+	}
+
+	protected static String loadResource(String name) {
+		InputStream inputStream = LocatorRuntime.class.getResourceAsStream(name);
+		if (inputStream == null) {
+			throw new Selenium2LibraryFatalException(String.format("Resource '%s' not found.", name));
+		}
+		try {
+			try {
+				Reader reader = new InputStreamReader(inputStream, "UTF-8");
+				StringBuilder builder = new StringBuilder();
+				char[] buffer = new char[4096];
+				int length;
+				while ((length = reader.read(buffer)) != -1) {
+					builder.append(buffer, 0, length);
+				}
+				return builder.toString();
+			} finally {
+				inputStream.close();
+			}
+		} catch (IOException e) {
+			throw new Selenium2LibraryFatalException(String.format("Resource '%s' could not be read.", name), e);
+		}
+	}
+}
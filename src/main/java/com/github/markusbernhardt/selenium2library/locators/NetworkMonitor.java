@@ -0,0 +1,100 @@
+package com.github.markusbernhardt.selenium2library.locators;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import com.github.markusbernhardt.selenium2library.Selenium2LibraryNonFatalException;
+
+/**
+ * Counts the XMLHttpRequest and fetch requests in flight with the network
+ * monitor (NetworkMonitor.js), which is installed once per document as
+ * window.__selenium2libraryNetwork.<br>
+ * <br>
+ * WebDriver offers no way to run a script before the scripts of a new
+ * document. So the monitor is installed as early as possible, i.e. after each
+ * navigation, if enabled, and before each check otherwise.
+ */
+public class NetworkMonitor {
+
+	/**
+	 * The source of the monitor
+	 */
+	protected final static String MONITOR_SOURCE = LocatorRuntime.loadResource("NetworkMonitor.js");
+
+	/**
+	 * Returns the state of the monitor or null, if not installed yet
+	 */
+	protected final static String STATE_SCRIPT = "var monitor = window.__selenium2libraryNetwork;"
+			+ "return monitor ? monitor.state() : null;";
+
+	/**
+	 * Installs the monitor in the current document, if not done yet.
+	 * 
+	 * @param webDriver
+	 *            the web driver to install the monitor in
+	 */
+	public static void install(WebDriver webDriver) {
+		if (!(webDriver instanceof JavascriptExecutor)) {
+			return;
+		}
+		try {
+			((JavascriptExecutor) webDriver).executeScript(MONITOR_SOURCE);
+		} catch (WebDriverException e) {
+			// No document yet. Installed by the next check.
+		} catch (UnsupportedOperationException e) {
+			// JavaScript is disabled
+		}
+	}
+
+	/**
+	 * Returns the state of the network in the current document. Installs the
+	 * monitor, if required.
+	 * 
+	 * @param webDriver
+	 *            the web driver to get the state of
+	 * @return the number of pending requests (pending), the number of all
+	 *         requests (requests), the milliseconds since the last activity
+	 *         (idle) and if the document is loaded (ready)
+	 */
+	public static Map<?, ?> getState(WebDriver webDriver) {
+		if (!(webDriver instanceof JavascriptExecutor)) {
+			throw new Selenium2LibraryNonFatalException("NetworkMonitor: webDriver can not execute JavaScript.");
+		}
+		JavascriptExecutor javascriptExecutor = (JavascriptExecutor) webDriver;
+
+		Object state = javascriptExecutor.executeScript(STATE_SCRIPT);
+		if (state == null) {
+			state = javascriptExecutor.executeScript(MONITOR_SOURCE + "\n" + STATE_SCRIPT);
+		}
+		return (Map<?, ?>) state;
+	}
+
+	/**
+	 * Checks if the current document is loaded and no request was pending for
+	 * the given time.
+	 * 
+	 * @param webDriver
+	 *            the web driver to check
+	 * @param idleTime
+	 *            the time in milliseconds without network activity
+	 * @return true, if the network is idle
+	 */
+	public static boolean isIdle(WebDriver webDriver, long idleTime) {
+		Map<?, ?> state = getState(webDriver);
+		return Boolean.TRUE.equals(state.get("ready")) && ((Number) state.get("pending")).longValue() == 0
+				&& ((Number) state.get("idle")).longValue() >= idleTime;
+	}
+
+	/**
+	 * @return the condition for BrowserWait, that the network is idle for the
+	 *         given time in milliseconds
+	 */
+	public static List<Object> idleCondition(long idleTime) {
+		return Arrays.<Object> asList("networkIdle", idleTime);
+	}
+}
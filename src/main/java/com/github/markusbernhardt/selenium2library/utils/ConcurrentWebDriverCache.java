@@ -0,0 +1,190 @@
+package com.github.markusbernhardt.selenium2library.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Stack;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.WebDriver;
+
+import com.github.markusbernhardt.selenium2library.Selenium2LibraryFatalException;
+
+/**
+ * Thread-safe cache for all open browsers.<br>
+ * <br>
+ * Every thread has its own current browser, its own aliases and its own
+ * history of opened browsers. Several threads can open, switch and close their
+ * browsers without interfering with each other. Session ids are unique within
+ * the whole JVM and are not reused.
+ */
+public class ConcurrentWebDriverCache extends WebDriverCache {
+
+	/**
+	 * The maximum assigned session id of all threads
+	 */
+	protected final AtomicInteger maxAssignedSessionIdOfAllThreads = new AtomicInteger();
+
+	/**
+	 * Map session ids to webdrivers of all threads
+	 */
+	protected final Map<String, SessionIdAliasWebDriverTuple> tupleBySessionIdOfAllThreads = new ConcurrentSkipListMap<String, SessionIdAliasWebDriverTuple>();
+
+	/**
+	 * The browsers of the current thread
+	 */
+	protected final ThreadLocal<ThreadState> threadState = new ThreadLocal<ThreadState>() {
+
+		@Override
+		protected ThreadState initialValue() {
+			return new ThreadState();
+		}
+	};
+
+	@Override
+	public String register(WebDriver webDriver, String alias) {
+		if (PerformanceStatistics.get() != null) {
+			TimingCommandExecutor.install(webDriver);
+		}
+
+		ThreadState state = threadState.get();
+
+		// create the new tuple
+		SessionIdAliasWebDriverTuple sessionIdAliasWebDriverTuple = new SessionIdAliasWebDriverTuple();
+		sessionIdAliasWebDriverTuple.alias = alias;
+		sessionIdAliasWebDriverTuple.webDriver = webDriver;
+		sessionIdAliasWebDriverTuple.id = Integer.toString(maxAssignedSessionIdOfAllThreads.incrementAndGet());
+
+		// store the new tuple
+		state.current = sessionIdAliasWebDriverTuple;
+		state.openSessionIds.push(sessionIdAliasWebDriverTuple.id);
+		state.tupleBySessionId.put(sessionIdAliasWebDriverTuple.id, sessionIdAliasWebDriverTuple);
+		tupleBySessionIdOfAllThreads.put(sessionIdAliasWebDriverTuple.id, sessionIdAliasWebDriverTuple);
+		if (alias != null) {
+			state.tupleByAlias.put(alias, sessionIdAliasWebDriverTuple);
+		}
+		return sessionIdAliasWebDriverTuple.id;
+	}
+
+	@Override
+	public WebDriver getCurrent() {
+		SessionIdAliasWebDriverTuple current = threadState.get().current;
+		if (current != null) {
+			return current.webDriver;
+		}
+		return null;
+	}
+
+	@Override
+	public String getCurrentSessionId() {
+		SessionIdAliasWebDriverTuple current = threadState.get().current;
+		if (current != null) {
+			return current.id;
+		}
+		return null;
+	}
+
+	@Override
+	public void close() {
+		ThreadState state = threadState.get();
+		if (state.current != null) {
+			// Close the webdriver and remove it from all stores
+			SessionIdAliasWebDriverTuple current = state.current;
+			try {
+				quit(current.webDriver);
+			} finally {
+				state.forget(current);
+				tupleBySessionIdOfAllThreads.remove(current.id);
+			}
+		}
+	}
+
+	/**
+	 * Closes all browsers opened by the current thread. The browsers of other
+	 * threads are left open.
+	 */
+	@Override
+	public List<SessionIdAliasWebDriverTuple> closeAll(long quitTimeout) {
+		ThreadState state = threadState.get();
+		threadState.remove();
+		for (SessionIdAliasWebDriverTuple sessionIdAliasWebDriverTuple : state.tupleBySessionId.values()) {
+			tupleBySessionIdOfAllThreads.remove(sessionIdAliasWebDriverTuple.id);
+		}
+		return quitAll(state.tupleBySessionId.values(), quitTimeout);
+	}
+
+	@Override
+	public void switchBrowser(String sessionIdOrAlias) {
+		ThreadState state = threadState.get();
+		SessionIdAliasWebDriverTuple sessionIdAliasWebDriverTuple = state.tupleByAlias.get(sessionIdOrAlias);
+		if (sessionIdAliasWebDriverTuple == null) {
+			sessionIdAliasWebDriverTuple = state.tupleBySessionId.get(sessionIdOrAlias);
+		}
+		if (sessionIdAliasWebDriverTuple == null) {
+			throw new Selenium2LibraryFatalException(
+					String.format("Non-existing index or alias '%s'", sessionIdOrAlias));
+		}
+		state.current = sessionIdAliasWebDriverTuple;
+		state.openSessionIds.remove(sessionIdAliasWebDriverTuple.id);
+		state.openSessionIds.push(sessionIdAliasWebDriverTuple.id);
+	}
+
+	/**
+	 * Returns the browsers opened by the current thread.
+	 */
+	@Override
+	public Collection<SessionIdAliasWebDriverTuple> getWebDrivers() {
+		return Collections.unmodifiableCollection(
+				new ArrayList<SessionIdAliasWebDriverTuple>(threadState.get().tupleBySessionId.values()));
+	}
+
+	/**
+	 * Returns the browsers opened by all threads.
+	 */
+	public Collection<SessionIdAliasWebDriverTuple> getWebDriversOfAllThreads() {
+		return Collections.unmodifiableCollection(tupleBySessionIdOfAllThreads.values());
+	}
+
+	/**
+	 * The browsers of a single thread. Only accessed by its own thread.
+	 */
+	protected static class ThreadState {
+
+		/**
+		 * The currently active web driver instance of the thread
+		 */
+		SessionIdAliasWebDriverTuple current;
+
+		/**
+		 * Stack of currently open session ids of the thread
+		 */
+		Stack<String> openSessionIds = new Stack<String>();
+
+		/**
+		 * Map session ids to webdrivers of the thread
+		 */
+		Map<String, SessionIdAliasWebDriverTuple> tupleBySessionId = new TreeMap<String, SessionIdAliasWebDriverTuple>();
+
+		/**
+		 * Map aliases to webdrivers of the thread
+		 */
+		Map<String, SessionIdAliasWebDriverTuple> tupleByAlias = new TreeMap<String, SessionIdAliasWebDriverTuple>();
+
+		void forget(SessionIdAliasWebDriverTuple sessionIdAliasWebDriverTuple) {
+			tupleBySessionId.remove(sessionIdAliasWebDriverTuple.id);
+			openSessionIds.remove(sessionIdAliasWebDriverTuple.id);
+			if (sessionIdAliasWebDriverTuple.alias != null) {
+				tupleByAlias.remove(sessionIdAliasWebDriverTuple.alias);
+			}
+
+			// Set the last opened webdriver as current webdriver
+			if (sessionIdAliasWebDriverTuple == current) {
+				current = openSessionIds.size() != 0 ? tupleBySessionId.get(openSessionIds.peek()) : null;
+			}
+		}
+	}
+}
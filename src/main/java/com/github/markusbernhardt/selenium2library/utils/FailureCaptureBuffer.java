@@ -0,0 +1,120 @@
+package com.github.markusbernhardt.selenium2library.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ring buffer of the last snapshots taken when a keyword failed. The
+ * snapshots are only persisted, if the test fails. So expected failures, e.g.
+ * inside Run Keyword And Ignore Error or while retrying, only cost taking the
+ * snapshot.
+ */
+public class FailureCaptureBuffer {
+
+	protected final int size;
+
+	protected final boolean screenshots;
+
+	/**
+	 * The snapshots from the oldest to the newest. Guarded by itself.
+	 */
+	protected final LinkedList<Snapshot> snapshots = new LinkedList<Snapshot>();
+
+	protected final AtomicLong captured = new AtomicLong();
+	protected final AtomicLong overwritten = new AtomicLong();
+	protected final AtomicLong persisted = new AtomicLong();
+	protected final AtomicLong discarded = new AtomicLong();
+
+	public FailureCaptureBuffer(int size, boolean screenshots) {
+		this.size = Math.max(1, size);
+		this.screenshots = screenshots;
+	}
+
+	/**
+	 * Adds the snapshot and drops the oldest one, if the buffer is full.
+	 */
+	public void add(Snapshot snapshot) {
+		captured.incrementAndGet();
+		synchronized (snapshots) {
+			snapshots.addLast(snapshot);
+			if (snapshots.size() > size) {
+				snapshots.removeFirst();
+				overwritten.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Removes and returns all snapshots to persist them.
+	 */
+	public List<Snapshot> drain() {
+		List<Snapshot> drained;
+		synchronized (snapshots) {
+			drained = new ArrayList<Snapshot>(snapshots);
+			snapshots.clear();
+		}
+		persisted.addAndGet(drained.size());
+		return drained;
+	}
+
+	/**
+	 * Drops all snapshots, because the test did not fail.
+	 */
+	public void clear() {
+		synchronized (snapshots) {
+			discarded.addAndGet(snapshots.size());
+			snapshots.clear();
+		}
+	}
+
+	public boolean isScreenshots() {
+		return screenshots;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("size=%d, screenshots=%s, captured=%d, overwritten=%d, persisted=%d, discarded=%d", size,
+				screenshots, captured.get(), overwritten.get(), persisted.get(), discarded.get());
+	}
+
+	/**
+	 * The state of the browser when a keyword failed
+	 */
+	public static class Snapshot {
+
+		protected final long time = System.currentTimeMillis();
+
+		protected final String url;
+
+		protected final String title;
+
+		protected final String base64Png;
+
+		public Snapshot(String url, String title, String base64Png) {
+			this.url = url;
+			this.title = title;
+			this.base64Png = base64Png;
+		}
+
+		public long getTime() {
+			return time;
+		}
+
+		public String getUrl() {
+			return url;
+		}
+
+		public String getTitle() {
+			return title;
+		}
+
+		/**
+		 * @return the screenshot as returned by the web driver or null
+		 */
+		public String getBase64Png() {
+			return base64Png;
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.github.markusbernhardt.selenium2library.utils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class FileHelper {
+
+	/**
+	 * Writes the bytes to the given path through a file channel.
+	 */
+	public static void write(File path, byte[] content) throws IOException {
+		FileOutputStream fos = new FileOutputStream(path);
+		try {
+			FileChannel channel = fos.getChannel();
+			ByteBuffer buffer = ByteBuffer.wrap(content);
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} finally {
+			fos.close();
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package com.github.markusbernhardt.selenium2library.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A small, bounded and thread-safe least recently used cache, that counts its
+ * hits and misses.
+ */
+public class LruCache<K, V> {
+
+	/**
+	 * The maximum number of entries kept in the cache
+	 */
+	protected final int maxSize;
+
+	/**
+	 * The entries in access order. Guarded by itself.
+	 */
+	protected final Map<K, V> entries;
+
+	/**
+	 * Number of lookups that found an entry
+	 */
+	protected final AtomicLong hits = new AtomicLong();
+
+	/**
+	 * Number of lookups that did not find an entry
+	 */
+	protected final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Number of entries dropped to stay below maxSize
+	 */
+	protected final AtomicLong evictions = new AtomicLong();
+
+	public LruCache(final int maxSize) {
+		this.maxSize = maxSize;
+		this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				if (size() > LruCache.this.maxSize) {
+					evictions.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public V get(K key) {
+		V value;
+		synchronized (entries) {
+			value = entries.get(key);
+		}
+		if (value != null) {
+			hits.incrementAndGet();
+		} else {
+			misses.incrementAndGet();
+		}
+		return value;
+	}
+
+	public void put(K key, V value) {
+		synchronized (entries) {
+			entries.put(key, value);
+		}
+	}
+
+	public V remove(K key) {
+		synchronized (entries) {
+			return entries.remove(key);
+		}
+	}
+
+	/**
+	 * Removes the entry only, if the key is still mapped to the given value.
+	 *
+	 * @return true, if the entry was removed
+	 */
+	public boolean remove(K key, V value) {
+		synchronized (entries) {
+			if (entries.get(key) != value) {
+				return false;
+			}
+			entries.remove(key);
+			return true;
+		}
+	}
+
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * @return a copy of the values from the least to the most recently used
+	 */
+	public List<V> values() {
+		synchronized (entries) {
+			return new ArrayList<V>(entries.values());
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("size=%d/%d, hits=%d, misses=%d, evictions=%d", size(), maxSize, getHits(),
+				getMisses(), getEvictions());
+	}
+}
@@ -0,0 +1,322 @@
+package com.github.markusbernhardt.selenium2library.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Latency statistics of the keywords and of the commands sent to the web
+ * drivers.<br>
+ * <br>
+ * The keywords are timed by the PerformanceAspect, the commands by the
+ * {@link TimingCommandExecutor}. Only the outermost keyword on a thread is
+ * timed, i.e. the keyword called by Robot Framework. The time of a keyword not
+ * spent in web driver commands is recorded as its overhead.
+ */
+public class PerformanceStatistics {
+
+	public static final String KEYWORD = "keyword";
+
+	public static final String OVERHEAD = "overhead";
+
+	public static final String COMMAND = "command";
+
+	/**
+	 * The statistics recorded into or null, if disabled
+	 */
+	protected static volatile PerformanceStatistics current = null;
+
+	protected final ConcurrentMap<String, Latency> latencies = new ConcurrentHashMap<String, Latency>();
+
+	protected final ThreadLocal<KeywordState> keywordState = new ThreadLocal<KeywordState>() {
+
+		@Override
+		protected KeywordState initialValue() {
+			return new KeywordState();
+		}
+	};
+
+	protected final long started = System.currentTimeMillis();
+
+	public static PerformanceStatistics get() {
+		return current;
+	}
+
+	/**
+	 * Starts recording, if not yet started.
+	 *
+	 * @return the statistics recorded into
+	 */
+	public static synchronized PerformanceStatistics enable() {
+		if (current == null) {
+			current = new PerformanceStatistics();
+		}
+		return current;
+	}
+
+	/**
+	 * Stops recording.
+	 *
+	 * @return the statistics recorded so far or null, if not started
+	 */
+	public static synchronized PerformanceStatistics disable() {
+		PerformanceStatistics old = current;
+		current = null;
+		return old;
+	}
+
+	/**
+	 * Called when a keyword starts on the current thread.
+	 */
+	public void enterKeyword() {
+		KeywordState state = keywordState.get();
+		if (state.depth++ == 0) {
+			state.commandNanos = 0;
+		}
+	}
+
+	/**
+	 * Called when a keyword ends on the current thread.
+	 *
+	 * @param methodName
+	 *            the name of the keyword method
+	 * @param nanos
+	 *            the duration of the keyword
+	 */
+	public void exitKeyword(String methodName, long nanos) {
+		KeywordState state = keywordState.get();
+		if (--state.depth > 0) {
+			return;
+		}
+		state.depth = 0;
+		String keywordName = toKeywordName(methodName);
+		record(KEYWORD, keywordName, nanos);
+		record(OVERHEAD, keywordName, Math.max(0, nanos - state.commandNanos));
+	}
+
+	/**
+	 * Records a command sent to a web driver.
+	 *
+	 * @param commandName
+	 *            the name of the command
+	 * @param nanos
+	 *            the duration of the command
+	 */
+	public void recordCommand(String commandName, long nanos) {
+		record(COMMAND, commandName, nanos);
+		KeywordState state = keywordState.get();
+		if (state.depth > 0) {
+			state.commandNanos += nanos;
+		}
+	}
+
+	protected void record(String type, String name, long nanos) {
+		String key = type + " " + name;
+		Latency latency = latencies.get(key);
+		if (latency == null) {
+			Latency newLatency = new Latency(type, name);
+			latency = latencies.putIfAbsent(key, newLatency);
+			if (latency == null) {
+				latency = newLatency;
+			}
+		}
+		latency.add(nanos);
+	}
+
+	/**
+	 * Returns the latencies, the largest total first.
+	 */
+	public List<Latency> getLatencies() {
+		// Sort by a snapshot of the totals, as other threads keep adding
+		final Map<Latency, Long> totals = new HashMap<Latency, Long>();
+		for (Latency latency : latencies.values()) {
+			totals.put(latency, latency.getTotalNanos());
+		}
+		List<Latency> sorted = new ArrayList<Latency>(totals.keySet());
+		Collections.sort(sorted, new Comparator<Latency>() {
+
+			@Override
+			public int compare(Latency o1, Latency o2) {
+				long total1 = totals.get(o1);
+				long total2 = totals.get(o2);
+				return total1 < total2 ? 1 : (total1 == total2 ? 0 : -1);
+			}
+		});
+		return sorted;
+	}
+
+	public String toCsv() {
+		StringBuilder csv = new StringBuilder("type,name,count,total_ms,mean_ms,min_ms,max_ms,p50_ms,p90_ms,p99_ms\n");
+		for (Latency latency : getLatencies()) {
+			csv.append(latency.toCsv()).append('\n');
+		}
+		return csv.toString();
+	}
+
+	public String toJson() {
+		StringBuilder json = new StringBuilder("{\"started\":").append(started).append(",\"latencies\":[");
+		boolean first = true;
+		for (Latency latency : getLatencies()) {
+			if (!first) {
+				json.append(',');
+			}
+			json.append(latency.toJson());
+			first = false;
+		}
+		return json.append("]}").toString();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder string = new StringBuilder();
+		for (Latency latency : getLatencies()) {
+			string.append(latency).append('\n');
+		}
+		return string.length() > 0 ? string.toString().trim() : "No keywords or commands recorded";
+	}
+
+	/**
+	 * Converts e.g. clickElement to Click Element.
+	 */
+	protected static String toKeywordName(String methodName) {
+		StringBuilder keywordName = new StringBuilder(methodName.length() + 8);
+		for (int i = 0; i < methodName.length(); i++) {
+			char c = methodName.charAt(i);
+			if (i == 0) {
+				keywordName.append(Character.toUpperCase(c));
+			} else {
+				if (Character.isUpperCase(c)) {
+					keywordName.append(' ');
+				}
+				keywordName.append(c);
+			}
+		}
+		return keywordName.toString();
+	}
+
+	protected static class KeywordState {
+
+		int depth;
+
+		long commandNanos;
+	}
+
+	/**
+	 * Count, extremes and a histogram of the durations of a keyword or command.
+	 * Bucket i of the histogram counts the durations from 2^i to 2^(i+1)
+	 * microseconds.
+	 */
+	public static class Latency {
+
+		protected final static int BUCKETS = 40;
+
+		protected final String type;
+
+		protected final String name;
+
+		protected long count;
+
+		protected long totalNanos;
+
+		protected long minNanos = Long.MAX_VALUE;
+
+		protected long maxNanos;
+
+		protected final long[] buckets = new long[BUCKETS];
+
+		protected Latency(String type, String name) {
+			this.type = type;
+			this.name = name;
+		}
+
+		protected synchronized void add(long nanos) {
+			count++;
+			totalNanos += nanos;
+			minNanos = Math.min(minNanos, nanos);
+			maxNanos = Math.max(maxNanos, nanos);
+			long micros = nanos / 1000;
+			int bucket = micros <= 1 ? 0 : 63 - Long.numberOfLeadingZeros(micros);
+			buckets[Math.min(bucket, BUCKETS - 1)]++;
+		}
+
+		public String getType() {
+			return type;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public synchronized long getCount() {
+			return count;
+		}
+
+		public synchronized long getTotalNanos() {
+			return totalNanos;
+		}
+
+		public synchronized long getMeanNanos() {
+			return count > 0 ? totalNanos / count : 0;
+		}
+
+		/**
+		 * Estimates the given quantile from the histogram as upper bound of
+		 * its bucket, but at most the maximum.
+		 *
+		 * @param quantile
+		 *            the quantile between 0 and 1
+		 * @return the estimated quantile in nanoseconds
+		 */
+		public synchronized long getQuantileNanos(double quantile) {
+			if (count == 0) {
+				return 0;
+			}
+			long rank = (long) Math.ceil(quantile * count);
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += buckets[i];
+				if (seen >= rank) {
+					return Math.min((1L << (i + 1)) * 1000, maxNanos);
+				}
+			}
+			return maxNanos;
+		}
+
+		protected synchronized String toCsv() {
+			long minNanos = count > 0 ? this.minNanos : 0;
+			return String.format(Locale.ENGLISH, "%s,\"%s\",%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f", type,
+					name.replace("\"", "\"\""), count, millis(totalNanos), millis(getMeanNanos()),
+					millis(minNanos), millis(maxNanos), millis(getQuantileNanos(0.5)),
+					millis(getQuantileNanos(0.9)), millis(getQuantileNanos(0.99)));
+		}
+
+		protected synchronized String toJson() {
+			long minNanos = count > 0 ? this.minNanos : 0;
+			return String.format(Locale.ENGLISH, "{\"type\":\"%s\",\"name\":\"%s\",\"count\":%d,\"totalMs\":%.3f,"
+					+ "\"meanMs\":%.3f,\"minMs\":%.3f,\"maxMs\":%.3f,\"p50Ms\":%.3f,\"p90Ms\":%.3f,\"p99Ms\":%.3f}",
+					type, name.replace("\\", "\\\\").replace("\"", "\\\""), count, millis(totalNanos),
+					millis(getMeanNanos()), millis(minNanos), millis(maxNanos), millis(getQuantileNanos(0.5)),
+					millis(getQuantileNanos(0.9)), millis(getQuantileNanos(0.99)));
+		}
+
+		@Override
+		public synchronized String toString() {
+			long minNanos = count > 0 ? this.minNanos : 0;
+			return String.format(Locale.ENGLISH,
+					"%s %s: count=%d, total=%.1f ms, mean=%.1f ms, min=%.1f ms, max=%.1f ms, p50=%.1f ms, "
+							+ "p90=%.1f ms, p99=%.1f ms", type, name, count, millis(totalNanos),
+					millis(getMeanNanos()), millis(minNanos), millis(maxNanos), millis(getQuantileNanos(0.5)),
+					millis(getQuantileNanos(0.9)), millis(getQuantileNanos(0.99)));
+		}
+
+		protected static double millis(long nanos) {
+			return nanos / 1000000.0;
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package com.github.markusbernhardt.selenium2library.utils;
+
+import com.github.markusbernhardt.selenium2library.Selenium2LibraryNonFatalException;
+
+/**
+ * Decides how long a wait sleeps between two polls of its condition.<br>
+ * <br>
+ * A poll strategy is given as string:
+ * <ul>
+ * <li>fixed[:interval] polls every interval (default 200 ms)</li>
+ * <li>exponential[:initial[:cap]] doubles the interval from initial (default
+ * 50 ms) up to cap (default 1 second)</li>
+ * <li>adaptive learns how long the waits for each condition take and polls
+ * tightly around the expected time. All waits share one adaptive strategy.</li>
+ * </ul>
+ */
+public abstract class PollStrategy {
+
+	/**
+	 * The adaptive strategy shared by all waits, so that it keeps what it
+	 * learned when the strategy is given again
+	 */
+	protected final static Adaptive ADAPTIVE = new Adaptive();
+
+	/**
+	 * Parses the given poll strategy.
+	 *
+	 * @param pollStrategy
+	 *            the poll strategy, e.g. fixed:500 ms or exponential:50ms:2s
+	 * @return the new poll strategy or the shared adaptive strategy
+	 */
+	public static PollStrategy parse(String pollStrategy) {
+		String[] parts = pollStrategy.trim().split(":");
+		String name = parts[0].trim().toLowerCase();
+		if ("fixed".equals(name) && parts.length <= 2) {
+			return new Fixed(parts.length > 1 ? toMillis(parts[1]) : 200);
+		}
+		if ("exponential".equals(name) && parts.length <= 3) {
+			return new Exponential(parts.length > 1 ? toMillis(parts[1]) : 50,
+					parts.length > 2 ? toMillis(parts[2]) : 1000);
+		}
+		if ("adaptive".equals(name) && parts.length == 1) {
+			return ADAPTIVE;
+		}
+		throw new Selenium2LibraryNonFatalException(String.format("Invalid poll strategy '%s'", pollStrategy));
+	}
+
+	/**
+	 * Returns the time to sleep before the next poll.
+	 *
+	 * @param key
+	 *            identifies the condition waited for
+	 * @param polls
+	 *            the number of polls done so far
+	 * @param elapsed
+	 *            the milliseconds since the wait started
+	 * @return the milliseconds to sleep
+	 */
+	public abstract long nextDelay(String key, int polls, long elapsed);
+
+	/**
+	 * Called at the end of each wait.
+	 *
+	 * @param key
+	 *            identifies the condition waited for
+	 * @param success
+	 *            true, if the condition was met
+	 * @param elapsed
+	 *            the milliseconds the wait took
+	 */
+	public void finished(String key, boolean success, long elapsed) {
+	}
+
+	protected static long toMillis(String timestr) {
+		return (long) (Robotframework.timestrToSecs(timestr.trim()) * 1000.0);
+	}
+
+	/**
+	 * Polls in a fixed interval
+	 */
+	public static class Fixed extends PollStrategy {
+
+		protected final long interval;
+
+		public Fixed(long interval) {
+			this.interval = interval;
+		}
+
+		@Override
+		public long nextDelay(String key, int polls, long elapsed) {
+			return interval;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("fixed:%d ms", interval);
+		}
+	}
+
+	/**
+	 * Doubles the interval after each poll up to a cap
+	 */
+	public static class Exponential extends PollStrategy {
+
+		protected final long initial;
+
+		protected final long cap;
+
+		public Exponential(long initial, long cap) {
+			this.initial = Math.max(1, initial);
+			this.cap = Math.max(this.initial, cap);
+		}
+
+		@Override
+		public long nextDelay(String key, int polls, long elapsed) {
+			long delay = initial;
+			for (int i = 1; i < polls && delay < cap; i++) {
+				delay *= 2;
+			}
+			return Math.min(delay, cap);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("exponential:%d ms:%d ms", initial, cap);
+		}
+	}
+
+	/**
+	 * Learns the typical duration of the waits per condition. Sleeps until
+	 * shortly before the expected time, polls tightly around it and backs off
+	 * exponentially, if the condition is late. Conditions without history are
+	 * polled exponentially.
+	 */
+	public static class Adaptive extends PollStrategy {
+
+		/**
+		 * Maximum number of conditions to remember
+		 */
+		protected final static int HISTORY_SIZE = 1024;
+
+		/**
+		 * Weight of the last wait in the expected duration
+		 */
+		protected final static double WEIGHT = 0.3;
+
+		protected final static long TIGHT_INTERVAL = 25;
+
+		protected final static long MAX_INTERVAL = 1000;
+
+		protected final Exponential unknown = new Exponential(50, 500);
+
+		/**
+		 * Expected wait duration in milliseconds by condition
+		 */
+		protected final LruCache<String, Double> expectedByKey = new LruCache<String, Double>(HISTORY_SIZE);
+
+		@Override
+		public long nextDelay(String key, int polls, long elapsed) {
+			Double expected = expectedByKey.get(key);
+			if (expected == null) {
+				return unknown.nextDelay(key, polls, elapsed);
+			}
+
+			long untilExpected = (long) (expected * 0.9) - elapsed;
+			if (untilExpected > TIGHT_INTERVAL) {
+				// Skip the time the condition is usually not met
+				return Math.min(untilExpected, MAX_INTERVAL);
+			}
+			long overdue = elapsed - (long) (expected * 1.5) - TIGHT_INTERVAL;
+			if (overdue <= 0) {
+				return TIGHT_INTERVAL;
+			}
+			return Math.min(Math.max(TIGHT_INTERVAL, overdue / 4), MAX_INTERVAL);
+		}
+
+		@Override
+		public void finished(String key, boolean success, long elapsed) {
+			if (!success) {
+				return;
+			}
+			synchronized (expectedByKey) {
+				Double expected = expectedByKey.get(key);
+				expectedByKey.put(key, expected == null ? elapsed : expected * (1 - WEIGHT) + elapsed * WEIGHT);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "adaptive";
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.github.markusbernhardt.selenium2library.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.python.core.Py;
+import org.python.core.PyObject;
+import org.python.util.PythonInterpreter;
+
+/**
+ * Direct bridge to the robot.api.logger functions.<br>
+ * <br>
+ * The logger functions are looked up once per thread and called with the
+ * message as Python unicode string. No Python source is built or parsed per
+ * message, so messages of any size are logged without escaping and without
+ * temporary files.
+ */
+public class RobotLogger {
+
+	protected final static String[] FUNCTION_NAMES = { "trace", "debug", "info", "warn" };
+
+	/**
+	 * The logger functions by name. Looked up once per thread.
+	 */
+	protected static ThreadLocal<Map<String, PyObject>> loggerFunctions = new ThreadLocal<Map<String, PyObject>>() {
+
+		@Override
+		protected Map<String, PyObject> initialValue() {
+			PythonInterpreter pythonInterpreter = new PythonInterpreter();
+			pythonInterpreter.exec("from robot.api import logger");
+			PyObject logger = pythonInterpreter.get("logger");
+
+			Map<String, PyObject> functions = new HashMap<String, PyObject>();
+			for (String functionName : FUNCTION_NAMES) {
+				functions.put(functionName, logger.__getattr__(functionName));
+			}
+			return functions;
+		}
+	};
+
+	/**
+	 * Logs the message with the given logger function.
+	 * 
+	 * @param functionName
+	 *            one of trace, debug, info or warn
+	 * @param msg
+	 *            the message to log
+	 * @param html
+	 *            true, if the message is HTML
+	 */
+	public static void log(String functionName, String msg, boolean html) {
+		PyObject function = loggerFunctions.get().get(functionName);
+		if (function == null) {
+			throw new IllegalArgumentException(String.format("Unknown logger function '%s'", functionName));
+		}
+		function.__call__(Py.newUnicode(msg), html ? Py.True : Py.False);
+	}
+
+	public static void trace(String msg) {
+		log("trace", msg, false);
+	}
+
+	public static void debug(String msg) {
+		log("debug", msg, false);
+	}
+
+	public static void info(String msg) {
+		log("info", msg, false);
+	}
+
+	public static void html(String msg) {
+		log("info", msg, true);
+	}
+
+	public static void warn(String msg) {
+		log("warn", msg, false);
+	}
+}
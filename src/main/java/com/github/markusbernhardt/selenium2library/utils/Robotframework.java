@@ -155,7 +155,7 @@ public abstract class Robotframework {
 		if (stringBuilder.length() != 0) {
 			throw new Selenium2LibraryNonFatalException("Invalid timestr: " + timestr);
 		}
-		return sign * (millis / 1000 + secs + mins * 60 + hours * 60 * 60 + days * 60 * 60 * 24);
+		return sign * (millis / 1000.0 + secs + mins * 60 + hours * 60 * 60 + days * 60 * 60 * 24);
 	}
 
 	public static String normalizeTimestr(String timestr) {
@@ -0,0 +1,135 @@
+package com.github.markusbernhardt.selenium2library.utils;
+
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded index of the screenshots written by their content hash, so identical
+ * screenshots are linked to the existing file instead of being written again.
+ */
+public class ScreenshotHashIndex {
+
+	/**
+	 * Maximum number of screenshots to remember
+	 */
+	protected final static int INDEX_SIZE = 1024;
+
+	protected final LruCache<String, Entry> entriesByKey = new LruCache<String, Entry>(INDEX_SIZE);
+
+	protected final AtomicLong duplicates = new AtomicLong();
+
+	protected final AtomicLong savedBytes = new AtomicLong();
+
+	/**
+	 * Returns the SHA-1 hash of the screenshot as returned by the web driver.
+	 */
+	public static String hash(String base64Png) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+			byte[] digest = messageDigest.digest(base64Png.getBytes("US-ASCII"));
+			StringBuilder hash = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				hash.append(String.format("%02x", b & 0xff));
+			}
+			return hash.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Looks up the screenshot written for the given key and counts it as
+	 * duplicate, if found.
+	 *
+	 * @param key
+	 *            the hash of the screenshot and the options it was written
+	 *            with
+	 * @return the existing screenshot or null
+	 */
+	public Entry get(String key) {
+		Entry entry = entriesByKey.get(key);
+		if (entry != null) {
+			duplicates.incrementAndGet();
+			savedBytes.addAndGet(entry.getSize());
+		}
+		return entry;
+	}
+
+	public Entry put(String key, File path, File thumbnailPath, long pngSize) {
+		Entry entry = new Entry(path, thumbnailPath, pngSize);
+		entriesByKey.put(key, entry);
+		return entry;
+	}
+
+	/**
+	 * Forgets the screenshot, e.g. because writing it failed, unless the key
+	 * was indexed again in the meantime.
+	 */
+	public void remove(String key, Entry entry) {
+		entriesByKey.remove(key, entry);
+	}
+
+	public void clear() {
+		entriesByKey.clear();
+	}
+
+	public long getDuplicates() {
+		return duplicates.get();
+	}
+
+	public long getSavedBytes() {
+		return savedBytes.get();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("duplicates=%d, savedBytes=%d, index %s", duplicates.get(), savedBytes.get(),
+				entriesByKey);
+	}
+
+	/**
+	 * A screenshot written before
+	 */
+	public static class Entry {
+
+		protected final File path;
+
+		protected final File thumbnailPath;
+
+		protected final long pngSize;
+
+		protected Entry(File path, File thumbnailPath, long pngSize) {
+			this.path = path;
+			this.thumbnailPath = thumbnailPath;
+			this.pngSize = pngSize;
+		}
+
+		public File getPath() {
+			return path;
+		}
+
+		public File getThumbnailPath() {
+			return thumbnailPath;
+		}
+
+		/**
+		 * @return the size of the files on disk or the size of the PNG, if
+		 *         they are not written yet
+		 */
+		public long getSize() {
+			long size = path.length();
+			if (size == 0) {
+				return pngSize;
+			}
+			if (thumbnailPath != null) {
+				size += thumbnailPath.length();
+			}
+			return size;
+		}
+	}
+}
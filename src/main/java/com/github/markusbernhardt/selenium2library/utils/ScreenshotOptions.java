@@ -0,0 +1,200 @@
+package com.github.markusbernhardt.selenium2library.utils;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import com.github.markusbernhardt.selenium2library.Selenium2LibraryNonFatalException;
+
+/**
+ * Describes how screenshots are stored.<br>
+ * <br>
+ * The options are given as comma separated string:
+ * <ul>
+ * <li>format=png or format=jpeg[:quality] selects the file format. The JPEG
+ * quality ranges from 1 to 100 (default 85).</li>
+ * <li>maxWidth=&lt;pixels&gt; scales wider screenshots down to this width. 0
+ * keeps the original size.</li>
+ * <li>thumbnail=&lt;pixels&gt; additionally stores a thumbnail of this width,
+ * which is embedded into the log. 0 disables the thumbnail.</li>
+ * </ul>
+ * Options not given are taken from the defaults.
+ */
+public class ScreenshotOptions {
+
+	public static final ScreenshotOptions DEFAULT = new ScreenshotOptions("png", 85, 0, 0);
+
+	protected final String format;
+
+	protected final int quality;
+
+	protected final int maxWidth;
+
+	protected final int thumbnailWidth;
+
+	public ScreenshotOptions(String format, int quality, int maxWidth, int thumbnailWidth) {
+		this.format = format;
+		this.quality = quality;
+		this.maxWidth = maxWidth;
+		this.thumbnailWidth = thumbnailWidth;
+	}
+
+	/**
+	 * Parses the given screenshot options.
+	 *
+	 * @param options
+	 *            the options, e.g. format=jpeg:80, maxWidth=1280, thumbnail=320
+	 * @param defaults
+	 *            the options used for everything not given
+	 * @return the new screenshot options
+	 */
+	public static ScreenshotOptions parse(String options, ScreenshotOptions defaults) {
+		String format = defaults.format;
+		int quality = defaults.quality;
+		int maxWidth = defaults.maxWidth;
+		int thumbnailWidth = defaults.thumbnailWidth;
+		try {
+			for (String option : options.split(",")) {
+				if (option.trim().length() == 0) {
+					continue;
+				}
+				String[] parts = option.split("=", 2);
+				if (parts.length != 2) {
+					throw new IllegalArgumentException();
+				}
+				String name = parts[0].trim().toLowerCase();
+				String value = parts[1].trim().toLowerCase();
+				if ("format".equals(name)) {
+					String[] formatParts = value.split(":");
+					format = formatParts[0].trim();
+					if ("jpg".equals(format)) {
+						format = "jpeg";
+					}
+					if (!"png".equals(format) && !"jpeg".equals(format) || formatParts.length > 2
+							|| formatParts.length == 2 && "png".equals(format)) {
+						throw new IllegalArgumentException();
+					}
+					if (formatParts.length == 2) {
+						quality = Integer.parseInt(formatParts[1].trim());
+						if (quality < 1 || quality > 100) {
+							throw new IllegalArgumentException();
+						}
+					}
+				} else if ("maxwidth".equals(name)) {
+					maxWidth = Math.max(0, Integer.parseInt(value));
+				} else if ("thumbnail".equals(name)) {
+					thumbnailWidth = Math.max(0, Integer.parseInt(value));
+				} else {
+					throw new IllegalArgumentException();
+				}
+			}
+		} catch (IllegalArgumentException e) {
+			throw new Selenium2LibraryNonFatalException(String.format("Invalid screenshot options '%s'", options));
+		}
+		return new ScreenshotOptions(format, quality, maxWidth, thumbnailWidth);
+	}
+
+	/**
+	 * @return true, if the PNG of the web driver can not be stored as it is
+	 */
+	public boolean needsEncoding() {
+		return !"png".equals(format) || maxWidth > 0;
+	}
+
+	public boolean hasThumbnail() {
+		return thumbnailWidth > 0;
+	}
+
+	public String getExtension() {
+		return "jpeg".equals(format) ? "jpg" : "png";
+	}
+
+	public int getThumbnailWidth() {
+		return thumbnailWidth;
+	}
+
+	/**
+	 * Encodes the screenshot according to these options.
+	 */
+	public byte[] encode(BufferedImage image) throws IOException {
+		return encode(image, maxWidth);
+	}
+
+	/**
+	 * Encodes the thumbnail of the screenshot according to these options.
+	 */
+	public byte[] encodeThumbnail(BufferedImage image) throws IOException {
+		return encode(image, thumbnailWidth);
+	}
+
+	protected byte[] encode(BufferedImage image, int width) throws IOException {
+		boolean jpeg = "jpeg".equals(format);
+		BufferedImage scaledImage = image;
+		if (width > 0 && image.getWidth() > width || jpeg && image.getColorModel().hasAlpha()) {
+			scaledImage = scale(image, width > 0 ? Math.min(width, image.getWidth()) : image.getWidth(), !jpeg);
+		}
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		if (!jpeg) {
+			ImageIO.write(scaledImage, "png", baos);
+			return baos.toByteArray();
+		}
+
+		Iterator<ImageWriter> imageWriters = ImageIO.getImageWritersByFormatName("jpeg");
+		if (!imageWriters.hasNext()) {
+			throw new IOException("No JPEG encoder available");
+		}
+		ImageWriter imageWriter = imageWriters.next();
+		ImageOutputStream ios = ImageIO.createImageOutputStream(baos);
+		try {
+			ImageWriteParam param = imageWriter.getDefaultWriteParam();
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionQuality(quality / 100f);
+			imageWriter.setOutput(ios);
+			imageWriter.write(null, new IIOImage(scaledImage, null, null), param);
+		} finally {
+			imageWriter.dispose();
+			ios.close();
+		}
+		return baos.toByteArray();
+	}
+
+	/**
+	 * Scales the image to the given width keeping the aspect ratio. JPEG can
+	 * not store an alpha channel, so it is dropped unless keepAlpha is set.
+	 */
+	protected static BufferedImage scale(BufferedImage image, int width, boolean keepAlpha) {
+		int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+		BufferedImage scaledImage = new BufferedImage(width, height, keepAlpha ? BufferedImage.TYPE_INT_ARGB
+				: BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = scaledImage.createGraphics();
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			if (!keepAlpha) {
+				graphics.setColor(Color.WHITE);
+				graphics.fillRect(0, 0, width, height);
+			}
+			graphics.drawImage(image, 0, 0, width, height, null);
+		} finally {
+			graphics.dispose();
+		}
+		return scaledImage;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("format=%s, maxWidth=%d, thumbnail=%d",
+				"jpeg".equals(format) ? "jpeg:" + quality : format, maxWidth, thumbnailWidth);
+	}
+}
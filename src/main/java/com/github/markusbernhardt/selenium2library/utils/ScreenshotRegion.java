@@ -0,0 +1,79 @@
+package com.github.markusbernhardt.selenium2library.utils;
+
+import java.awt.Rectangle;
+
+/**
+ * A region of the page to cut out of a screenshot.<br>
+ * <br>
+ * The region is given in CSS pixels relative to the document. Depending on the
+ * browser, a screenshot shows the whole document or only the viewport and is
+ * scaled by the device pixel ratio. Which one applies, is decided by the size
+ * of the screenshot when it is decoded.
+ */
+public class ScreenshotRegion {
+
+	protected final double x;
+
+	protected final double y;
+
+	protected final double width;
+
+	protected final double height;
+
+	protected final double scrollX;
+
+	protected final double scrollY;
+
+	protected final double viewportHeight;
+
+	protected final double devicePixelRatio;
+
+	public ScreenshotRegion(double x, double y, double width, double height, double scrollX, double scrollY,
+			double viewportHeight, double devicePixelRatio) {
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+		this.scrollX = scrollX;
+		this.scrollY = scrollY;
+		this.viewportHeight = viewportHeight;
+		this.devicePixelRatio = devicePixelRatio > 0 ? devicePixelRatio : 1;
+	}
+
+	/**
+	 * Returns the region in the pixels of the given screenshot, clipped to the
+	 * screenshot.
+	 *
+	 * @param imageWidth
+	 *            the width of the screenshot
+	 * @param imageHeight
+	 *            the height of the screenshot
+	 * @return the region or an empty rectangle, if it is outside of the
+	 *         screenshot
+	 */
+	public Rectangle toImageRegion(int imageWidth, int imageHeight) {
+		boolean viewportOnly = viewportHeight > 0 && imageHeight <= Math.ceil(viewportHeight * devicePixelRatio) + 1;
+		double left = viewportOnly ? x - scrollX : x;
+		double top = viewportOnly ? y - scrollY : y;
+		int imageX = (int) Math.floor(left * devicePixelRatio);
+		int imageY = (int) Math.floor(top * devicePixelRatio);
+		Rectangle region = new Rectangle(imageX, imageY, (int) Math.ceil((left + width) * devicePixelRatio) - imageX,
+				(int) Math.ceil((top + height) * devicePixelRatio) - imageY);
+		return region.intersection(new Rectangle(0, 0, imageWidth, imageHeight));
+	}
+
+	/**
+	 * Returns everything the cut out region depends on, i.e. besides the
+	 * region the scroll position, the height of the viewport and the device
+	 * pixel ratio. Identical screenshots only show the same region, if their
+	 * keys are equal.
+	 */
+	public String toKey() {
+		return String.format("%s@%.0f,%.0f,%.0f*%s", this, scrollX, scrollY, viewportHeight, devicePixelRatio);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%.0f,%.0f,%.0fx%.0f", x, y, width, height);
+	}
+}
@@ -0,0 +1,267 @@
+package com.github.markusbernhardt.selenium2library.utils;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+import org.openqa.selenium.OutputType;
+
+/**
+ * Decodes, encodes and writes screenshots in background threads.<br>
+ * <br>
+ * The keyword thread only fetches the Base64 encoded screenshot from the
+ * browser and hands it over. Converting and scaling the screenshot according
+ * to the {@link ScreenshotOptions} is done in the background too. The
+ * background threads may not log, as Robot Framework ignores messages not
+ * logged by the thread running the keyword, so failed writes are collected
+ * and returned by {@link #flush(long)}.
+ */
+public class ScreenshotWriter {
+
+	protected final int threads;
+
+	protected final ExecutorService executor;
+
+	/**
+	 * Number of screenshots submitted, but not yet written. Guarded by this.
+	 */
+	protected int pending;
+
+	protected final Queue<String> failures = new ConcurrentLinkedQueue<String>();
+
+	protected final AtomicLong submitted = new AtomicLong();
+	protected final AtomicLong written = new AtomicLong();
+	protected final AtomicLong failed = new AtomicLong();
+	protected final AtomicLong pngBytes = new AtomicLong();
+	protected final AtomicLong bytes = new AtomicLong();
+	protected final AtomicInteger maxPending = new AtomicInteger();
+
+	public ScreenshotWriter(int threads) {
+		this.threads = threads;
+		this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+
+			protected final AtomicInteger threadNumber = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Selenium2Library-ScreenshotWriter-"
+						+ threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Decodes the screenshot and writes it to the given path in a background
+	 * thread.
+	 *
+	 * @param path
+	 *            the file to write
+	 * @param base64Png
+	 *            the screenshot as returned by the web driver
+	 */
+	public void submit(File path, String base64Png) {
+		submit(path, null, base64Png, ScreenshotOptions.DEFAULT, null, null);
+	}
+
+	/**
+	 * Decodes the screenshot, encodes it according to the options and writes
+	 * it to the given path in a background thread.
+	 *
+	 * @param path
+	 *            the file to write
+	 * @param thumbnailPath
+	 *            the file to write the thumbnail to or null
+	 * @param base64Png
+	 *            the screenshot as returned by the web driver
+	 * @param options
+	 *            the options to encode the screenshot with
+	 * @param region
+	 *            the region to cut out of the screenshot or null
+	 * @param onFailure
+	 *            called in the background thread, if writing fails, or null
+	 */
+	public void submit(final File path, final File thumbnailPath, final String base64Png,
+			final ScreenshotOptions options, final ScreenshotRegion region, final Runnable onFailure) {
+		synchronized (this) {
+			pending++;
+			if (pending > maxPending.get()) {
+				maxPending.set(pending);
+			}
+		}
+		submitted.incrementAndGet();
+		executor.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					byte[] png = OutputType.BYTES.convertFromBase64Png(base64Png);
+					long length = write(path, thumbnailPath, png, options, region);
+					written.incrementAndGet();
+					pngBytes.addAndGet(png.length);
+					bytes.addAndGet(length);
+				} catch (Throwable t) {
+					failed.incrementAndGet();
+					failures.add(String.format("Can't write screenshot '%s': %s", path.getAbsolutePath(), t));
+					if (onFailure != null) {
+						onFailure.run();
+					}
+				} finally {
+					synchronized (ScreenshotWriter.this) {
+						pending--;
+						ScreenshotWriter.this.notifyAll();
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Waits until all submitted screenshots are written.
+	 *
+	 * @param timeout
+	 *            the maximum time to wait in milliseconds
+	 * @return the failures since the last flush
+	 */
+	public List<String> flush(long timeout) {
+		long deadline = System.currentTimeMillis() + timeout;
+		synchronized (this) {
+			long remaining = timeout;
+			while (pending > 0 && remaining > 0) {
+				try {
+					wait(remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+				remaining = deadline - System.currentTimeMillis();
+			}
+		}
+
+		List<String> flushFailures = new ArrayList<String>();
+		String failure;
+		while ((failure = failures.poll()) != null) {
+			flushFailures.add(failure);
+		}
+		int stillPending = getPending();
+		if (stillPending > 0) {
+			flushFailures.add(String.format("%d screenshots not written within %d ms", stillPending, timeout));
+		}
+		return flushFailures;
+	}
+
+	/**
+	 * Waits until all submitted screenshots are written and stops the
+	 * background threads.
+	 *
+	 * @see #flush(long)
+	 */
+	public List<String> shutdown(long timeout) {
+		List<String> flushFailures = flush(timeout);
+		executor.shutdown();
+		try {
+			executor.awaitTermination(100, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return flushFailures;
+	}
+
+	public synchronized int getPending() {
+		return pending;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"threads=%d, pending=%d, maxPending=%d, submitted=%d, written=%d, failed=%d, pngBytes=%d, bytes=%d",
+				threads, getPending(), maxPending.get(), submitted.get(), written.get(), failed.get(), pngBytes.get(),
+				bytes.get());
+	}
+
+	/**
+	 * Encodes the screenshot according to the options and writes it and its
+	 * thumbnail.
+	 *
+	 * @param path
+	 *            the file to write
+	 * @param thumbnailPath
+	 *            the file to write the thumbnail to or null
+	 * @param png
+	 *            the screenshot as returned by the web driver
+	 * @param options
+	 *            the options to encode the screenshot with
+	 * @param region
+	 *            the region to cut out of the screenshot or null
+	 * @return the number of bytes written
+	 */
+	public static long write(File path, File thumbnailPath, byte[] png, ScreenshotOptions options,
+			ScreenshotRegion region) throws IOException {
+		if (!options.needsEncoding() && thumbnailPath == null && region == null) {
+			FileHelper.write(path, png);
+			return png.length;
+		}
+
+		BufferedImage image = read(png, region);
+		byte[] content = options.needsEncoding() || region != null ? options.encode(image) : png;
+		FileHelper.write(path, content);
+		long length = content.length;
+		if (thumbnailPath != null) {
+			byte[] thumbnail = options.encodeThumbnail(image);
+			FileHelper.write(thumbnailPath, thumbnail);
+			length += thumbnail.length;
+		}
+		return length;
+	}
+
+	/**
+	 * Decodes the screenshot. With a region, the decoder skips everything
+	 * outside of the region, so only the region is held in memory.
+	 */
+	protected static BufferedImage read(byte[] png, ScreenshotRegion region) throws IOException {
+		ImageInputStream iis = new MemoryCacheImageInputStream(new ByteArrayInputStream(png));
+		try {
+			Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(iis);
+			if (!imageReaders.hasNext()) {
+				throw new IOException("Can't decode screenshot");
+			}
+			ImageReader imageReader = imageReaders.next();
+			try {
+				imageReader.setInput(iis, true, true);
+				ImageReadParam param = imageReader.getDefaultReadParam();
+				if (region != null) {
+					Rectangle imageRegion = region.toImageRegion(imageReader.getWidth(0), imageReader.getHeight(0));
+					if (imageRegion.isEmpty()) {
+						throw new IOException(String.format("Region %s is outside of the screenshot", region));
+					}
+					param.setSourceRegion(imageRegion);
+				}
+				return imageReader.read(0, param);
+			} finally {
+				imageReader.dispose();
+			}
+		} finally {
+			iis.close();
+		}
+	}
+}
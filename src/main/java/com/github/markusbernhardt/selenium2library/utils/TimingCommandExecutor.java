@@ -0,0 +1,68 @@
+package com.github.markusbernhardt.selenium2library.utils;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+
+/**
+ * Times every command a RemoteWebDriver sends to its browser, i.e. every
+ * round trip, into the current {@link PerformanceStatistics}. All local
+ * drivers except HtmlUnit are RemoteWebDrivers too.
+ */
+public class TimingCommandExecutor implements CommandExecutor {
+
+	protected final CommandExecutor commandExecutor;
+
+	protected TimingCommandExecutor(CommandExecutor commandExecutor) {
+		this.commandExecutor = commandExecutor;
+	}
+
+	/**
+	 * Wraps the command executor of the given web driver, if not done yet.
+	 *
+	 * @param webDriver
+	 *            the web driver to time
+	 * @return true, if the commands of the web driver are timed
+	 */
+	public static boolean install(WebDriver webDriver) {
+		if (!(webDriver instanceof RemoteWebDriver)) {
+			return false;
+		}
+		RemoteWebDriver remoteWebDriver = (RemoteWebDriver) webDriver;
+		CommandExecutor commandExecutor = remoteWebDriver.getCommandExecutor();
+		if (commandExecutor instanceof TimingCommandExecutor) {
+			return true;
+		}
+		if (commandExecutor == null) {
+			return false;
+		}
+		try {
+			Method setCommandExecutor = RemoteWebDriver.class.getDeclaredMethod("setCommandExecutor",
+					CommandExecutor.class);
+			setCommandExecutor.setAccessible(true);
+			setCommandExecutor.invoke(remoteWebDriver, new TimingCommandExecutor(commandExecutor));
+			return true;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	@Override
+	public Response execute(Command command) throws IOException {
+		PerformanceStatistics performanceStatistics = PerformanceStatistics.get();
+		if (performanceStatistics == null) {
+			return commandExecutor.execute(command);
+		}
+		long start = System.nanoTime();
+		try {
+			return commandExecutor.execute(command);
+		} finally {
+			performanceStatistics.recordCommand(command.getName(), System.nanoTime() - start);
+		}
+	}
+}
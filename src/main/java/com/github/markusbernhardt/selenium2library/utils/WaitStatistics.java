@@ -0,0 +1,185 @@
+package com.github.markusbernhardt.selenium2library.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+/**
+ * Statistics of the waits per condition, to find slow conditions and
+ * conditions failing expensively while being polled.
+ */
+public class WaitStatistics {
+
+	/**
+	 * Maximum number of conditions to keep statistics for
+	 */
+	protected final static int STATISTICS_SIZE = 1024;
+
+	protected final LruCache<String, ConditionStatistics> statisticsByKey = new LruCache<String, ConditionStatistics>(
+			STATISTICS_SIZE);
+
+	/**
+	 * Records a finished wait.
+	 */
+	public void record(Wait wait) {
+		ConditionStatistics statistics;
+		synchronized (statisticsByKey) {
+			statistics = statisticsByKey.get(wait.key);
+			if (statistics == null) {
+				statistics = new ConditionStatistics(wait.key);
+				statisticsByKey.put(wait.key, statistics);
+			}
+		}
+		statistics.add(wait);
+	}
+
+	public void clear() {
+		statisticsByKey.clear();
+	}
+
+	/**
+	 * Returns the statistics of all conditions, the most expensive first.
+	 */
+	public List<ConditionStatistics> getStatistics() {
+		List<ConditionStatistics> statistics = new ArrayList<ConditionStatistics>(statisticsByKey.values());
+		Collections.sort(statistics, new Comparator<ConditionStatistics>() {
+
+			@Override
+			public int compare(ConditionStatistics o1, ConditionStatistics o2) {
+				long elapsed1 = o1.getTotalElapsed();
+				long elapsed2 = o2.getTotalElapsed();
+				return elapsed1 < elapsed2 ? 1 : (elapsed1 == elapsed2 ? 0 : -1);
+			}
+		});
+		return statistics;
+	}
+
+	/**
+	 * A single wait in progress
+	 */
+	public static class Wait {
+
+		protected final String key;
+
+		protected final String pollStrategy;
+
+		protected final long start = System.currentTimeMillis();
+
+		protected int polls;
+
+		protected boolean success;
+
+		protected long elapsed;
+
+		protected final Map<String, Integer> absorbedExceptions = new TreeMap<String, Integer>();
+
+		protected Throwable lastAbsorbedException;
+
+		public Wait(String key, String pollStrategy) {
+			this.key = key;
+			this.pollStrategy = pollStrategy;
+		}
+
+		public void polled() {
+			polls++;
+		}
+
+		public void absorbed(Throwable t) {
+			String name = t.getClass().getSimpleName();
+			Integer count = absorbedExceptions.get(name);
+			absorbedExceptions.put(name, count == null ? 1 : count + 1);
+			lastAbsorbedException = t;
+		}
+
+		public void finished(boolean success) {
+			this.success = success;
+			this.elapsed = System.currentTimeMillis() - start;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public int getPolls() {
+			return polls;
+		}
+
+		public long getElapsed() {
+			return elapsed;
+		}
+
+		public boolean isSuccess() {
+			return success;
+		}
+
+		public Map<String, Integer> getAbsorbedExceptions() {
+			return absorbedExceptions;
+		}
+
+		public Throwable getLastAbsorbedException() {
+			return lastAbsorbedException;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s after %d ms with %d polls (%s), absorbed exceptions %s",
+					success ? "Succeeded" : "Failed", elapsed, polls, pollStrategy, absorbedExceptions);
+		}
+	}
+
+	/**
+	 * The waits for a single condition
+	 */
+	public static class ConditionStatistics {
+
+		protected final String key;
+
+		protected int waits;
+
+		protected int failures;
+
+		protected long totalPolls;
+
+		protected long totalElapsed;
+
+		protected long maxElapsed;
+
+		protected final Map<String, Integer> absorbedExceptions = new TreeMap<String, Integer>();
+
+		protected ConditionStatistics(String key) {
+			this.key = key;
+		}
+
+		protected synchronized void add(Wait wait) {
+			waits++;
+			if (!wait.success) {
+				failures++;
+			}
+			totalPolls += wait.polls;
+			totalElapsed += wait.elapsed;
+			maxElapsed = Math.max(maxElapsed, wait.elapsed);
+			for (Entry<String, Integer> entry : wait.absorbedExceptions.entrySet()) {
+				Integer count = absorbedExceptions.get(entry.getKey());
+				absorbedExceptions.put(entry.getKey(), count == null ? entry.getValue() : count + entry.getValue());
+			}
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public synchronized long getTotalElapsed() {
+			return totalElapsed;
+		}
+
+		@Override
+		public synchronized String toString() {
+			return String.format("%s: waits=%d, failures=%d, polls=%d, total=%d ms, max=%d ms, absorbed exceptions %s",
+					key, waits, failures, totalPolls, totalElapsed, maxElapsed, absorbedExceptions);
+		}
+	}
+}
@@ -1,9 +1,20 @@
 package com.github.markusbernhardt.selenium2library.utils;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Stack;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.openqa.selenium.WebDriver;
 
@@ -11,6 +22,16 @@ import com.github.markusbernhardt.selenium2library.Selenium2LibraryFatalExceptio
 
 public class WebDriverCache {
 
+	/**
+	 * Maximum number of webdrivers quit in parallel
+	 */
+	protected final static int MAX_PARALLEL_QUITS = 8;
+
+	/**
+	 * Default time in milliseconds a single webdriver may take to quit
+	 */
+	public final static long DEFAULT_QUIT_TIMEOUT = 30000;
+
 	/**
 	 * The currently active web driver instance
 	 */
@@ -41,7 +62,25 @@ public class WebDriverCache {
 	 */
 	Map<String, SessionIdAliasWebDriverTuple> tupleByAlias = new TreeMap<String, SessionIdAliasWebDriverTuple>();
 
+	/**
+	 * Optional pool the closed webdrivers are returned to instead of quitting
+	 * them
+	 */
+	volatile WebDriverPool webDriverPool;
+
+	public WebDriverPool getWebDriverPool() {
+		return webDriverPool;
+	}
+
+	public void setWebDriverPool(WebDriverPool webDriverPool) {
+		this.webDriverPool = webDriverPool;
+	}
+
 	public String register(WebDriver webDriver, String alias) {
+		if (PerformanceStatistics.get() != null) {
+			TimingCommandExecutor.install(webDriver);
+		}
+
 		// create the new tuple
 		currentSessionIdAliasWebDriverTuple = new SessionIdAliasWebDriverTuple();
 		currentSessionIdAliasWebDriverTuple.alias = alias;
@@ -81,7 +120,7 @@ public class WebDriverCache {
 	public void close() {
 		if (currentSessionIdAliasWebDriverTuple != null) {
 			// Close the webdriver and remove it from all stores
-			currentSessionIdAliasWebDriverTuple.webDriver.quit();
+			quit(currentSessionIdAliasWebDriverTuple.webDriver);
 			tupleBySessionId.remove(currentSessionIdAliasWebDriverTuple.id);
 			openSessionIds.remove(currentSessionIdAliasWebDriverTuple.id);
 			closedSessionIds.push(currentSessionIdAliasWebDriverTuple.id);
@@ -98,16 +137,26 @@ public class WebDriverCache {
 		}
 	}
 
-	public void closeAll() {
-		for (SessionIdAliasWebDriverTuple sessionIdAliasWebDriverTuple : tupleBySessionId.values()) {
-			sessionIdAliasWebDriverTuple.webDriver.quit();
-		}
+	public List<SessionIdAliasWebDriverTuple> closeAll() {
+		return closeAll(DEFAULT_QUIT_TIMEOUT);
+	}
+
+	/**
+	 * Quits all webdrivers in parallel and resets the cache.
+	 * 
+	 * @param quitTimeout
+	 *            the time in milliseconds a single webdriver may take to quit
+	 * @return the webdrivers, that failed to quit or did not quit in time
+	 */
+	public List<SessionIdAliasWebDriverTuple> closeAll(long quitTimeout) {
+		List<SessionIdAliasWebDriverTuple> notQuit = quitAll(tupleBySessionId.values(), quitTimeout);
 		maxAssignedSessionId = 0;
 		currentSessionIdAliasWebDriverTuple = null;
 		openSessionIds = new Stack<String>();
 		closedSessionIds = new Stack<String>();
 		tupleBySessionId = new TreeMap<String, SessionIdAliasWebDriverTuple>();
 		tupleByAlias = new TreeMap<String, SessionIdAliasWebDriverTuple>();
+		return notQuit;
 	}
 
 	public void switchBrowser(String sessionIdOrAlias) {
@@ -133,6 +182,75 @@ public class WebDriverCache {
 		return tupleBySessionId.values();
 	}
 
+	/**
+	 * Returns the webdriver to the pool, if it was leased from there. Quits it
+	 * otherwise.
+	 */
+	protected void quit(WebDriver webDriver) {
+		WebDriverPool webDriverPool = this.webDriverPool;
+		if (webDriverPool == null || !webDriverPool.release(webDriver)) {
+			webDriver.quit();
+		}
+	}
+
+	/**
+	 * Quits the given webdrivers with at most MAX_PARALLEL_QUITS threads. A
+	 * webdriver not quit within quitTimeout is interrupted and abandoned, so
+	 * the whole teardown takes about as long as the slowest single quit.
+	 */
+	protected List<SessionIdAliasWebDriverTuple> quitAll(Collection<SessionIdAliasWebDriverTuple> tuples,
+			long quitTimeout) {
+		List<SessionIdAliasWebDriverTuple> notQuit = new ArrayList<SessionIdAliasWebDriverTuple>();
+		if (tuples.isEmpty()) {
+			return notQuit;
+		}
+
+		int threads = Math.min(tuples.size(), MAX_PARALLEL_QUITS);
+		ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				// Never keep the JVM alive for a hanging quit
+				Thread thread = new Thread(runnable, "Selenium2Library-WebDriverCache-Quit");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		try {
+			Map<SessionIdAliasWebDriverTuple, Future<?>> futures = new LinkedHashMap<SessionIdAliasWebDriverTuple, Future<?>>();
+			for (final SessionIdAliasWebDriverTuple sessionIdAliasWebDriverTuple : tuples) {
+				futures.put(sessionIdAliasWebDriverTuple, executor.submit(new Runnable() {
+
+					@Override
+					public void run() {
+						quit(sessionIdAliasWebDriverTuple.webDriver);
+					}
+				}));
+			}
+
+			// Queued quits start only after a thread got free
+			int rounds = (tuples.size() + threads - 1) / threads;
+			long deadline = System.currentTimeMillis() + quitTimeout * rounds;
+			for (Entry<SessionIdAliasWebDriverTuple, Future<?>> entry : futures.entrySet()) {
+				try {
+					entry.getValue().get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+				} catch (TimeoutException e) {
+					entry.getValue().cancel(true);
+					notQuit.add(entry.getKey());
+				} catch (ExecutionException e) {
+					notQuit.add(entry.getKey());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					entry.getValue().cancel(true);
+					notQuit.add(entry.getKey());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return notQuit;
+	}
+
 	public static class SessionIdAliasWebDriverTuple {
 		public String id;
 		public String alias;
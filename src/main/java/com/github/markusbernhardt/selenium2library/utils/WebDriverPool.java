@@ -0,0 +1,349 @@
+package com.github.markusbernhardt.selenium2library.utils;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Pool of warm browsers.<br>
+ * <br>
+ * Browsers are pooled by a key describing how they were created, e.g. browser
+ * name, desired capabilities and remote URL. Leasing a browser of a key starts
+ * further browsers of this key in the background, until the idle and leased
+ * browsers of the key add up to maxIdlePerKey. Released browsers are reset
+ * (cookies of the current domain, web storage, additional windows,
+ * about:blank) instead of being quit. As leased browsers count, a released
+ * browser is reused by the next lease instead of a newly started one. Browsers
+ * idle longer than the idle timeout and browsers failing the health check or
+ * the reset are quit.
+ */
+public class WebDriverPool {
+
+	/**
+	 * Creates a new browser for a key of the pool
+	 */
+	public interface Factory {
+
+		WebDriver create() throws Exception;
+	}
+
+	/**
+	 * Maximum number of idle browsers kept per key
+	 */
+	protected final int maxIdlePerKey;
+
+	/**
+	 * Idle browsers are quit after this time in milliseconds
+	 */
+	protected final long idleTimeoutMillis;
+
+	/**
+	 * Idle browsers by key
+	 */
+	protected final Map<String, Queue<IdleWebDriver>> idleByKey = new ConcurrentHashMap<String, Queue<IdleWebDriver>>();
+
+	/**
+	 * Number of browsers currently started in the background by key
+	 */
+	protected final Map<String, AtomicInteger> launchingByKey = new ConcurrentHashMap<String, AtomicInteger>();
+
+	/**
+	 * Keys of the currently leased browsers
+	 */
+	protected final Map<WebDriver, String> keyByLeased = new ConcurrentHashMap<WebDriver, String>();
+
+	/**
+	 * Starts browsers in the background
+	 */
+	protected final ExecutorService launcher = Executors.newCachedThreadPool(new ThreadFactory() {
+
+		protected final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "Selenium2Library-WebDriverPool-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	/**
+	 * Quits the idle browsers when the JVM exits
+	 */
+	protected final Thread shutdownHook = new Thread("Selenium2Library-WebDriverPool-Shutdown") {
+
+		@Override
+		public void run() {
+			shutdown();
+		}
+	};
+
+	protected volatile boolean shutdown = false;
+
+	protected final AtomicLong launches = new AtomicLong();
+	protected final AtomicLong launchFailures = new AtomicLong();
+	protected final AtomicLong reuses = new AtomicLong();
+	protected final AtomicLong releases = new AtomicLong();
+	protected final AtomicLong healthCheckFailures = new AtomicLong();
+	protected final AtomicLong resetFailures = new AtomicLong();
+	protected final AtomicLong evictions = new AtomicLong();
+
+	public WebDriverPool(int maxIdlePerKey, long idleTimeoutMillis) {
+		this.maxIdlePerKey = maxIdlePerKey;
+		this.idleTimeoutMillis = idleTimeoutMillis;
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+
+	/**
+	 * Leases an idle and healthy browser of the given key or creates a new
+	 * one.
+	 */
+	public WebDriver lease(String key, Factory factory) throws Exception {
+		evictIdle();
+
+		WebDriver webDriver = null;
+		Queue<IdleWebDriver> idle = getIdle(key);
+		IdleWebDriver idleWebDriver;
+		while (webDriver == null && (idleWebDriver = idle.poll()) != null) {
+			if (isHealthy(idleWebDriver.webDriver)) {
+				webDriver = idleWebDriver.webDriver;
+				reuses.incrementAndGet();
+			} else {
+				healthCheckFailures.incrementAndGet();
+				quitQuietly(idleWebDriver.webDriver);
+			}
+		}
+		if (webDriver == null) {
+			webDriver = factory.create();
+			launches.incrementAndGet();
+		}
+		keyByLeased.put(webDriver, key);
+
+		launchInBackground(key, factory);
+		return webDriver;
+	}
+
+	/**
+	 * Returns a leased browser to the pool.
+	 *
+	 * @return false, if the browser was not leased from this pool and has to
+	 *         be quit by the caller.
+	 */
+	public boolean release(WebDriver webDriver) {
+		String key = keyByLeased.remove(webDriver);
+		if (key == null) {
+			return false;
+		}
+
+		releases.incrementAndGet();
+		Queue<IdleWebDriver> idle = getIdle(key);
+		if (shutdown || idle.size() >= maxIdlePerKey) {
+			quitQuietly(webDriver);
+		} else if (!reset(webDriver)) {
+			resetFailures.incrementAndGet();
+			quitQuietly(webDriver);
+		} else {
+			idle.offer(new IdleWebDriver(webDriver));
+		}
+		return true;
+	}
+
+	/**
+	 * Quits all idle browsers. Browsers still leased are quit on release.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		launcher.shutdownNow();
+		for (Queue<IdleWebDriver> idle : idleByKey.values()) {
+			IdleWebDriver idleWebDriver;
+			while ((idleWebDriver = idle.poll()) != null) {
+				quitQuietly(idleWebDriver.webDriver);
+			}
+		}
+		try {
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		} catch (IllegalStateException e) {
+			// Called by the shutdown hook itself
+		}
+	}
+
+	public int getMaxIdlePerKey() {
+		return maxIdlePerKey;
+	}
+
+	public long getIdleTimeoutMillis() {
+		return idleTimeoutMillis;
+	}
+
+	public int getIdleCount() {
+		int count = 0;
+		for (Queue<IdleWebDriver> idle : idleByKey.values()) {
+			count += idle.size();
+		}
+		return count;
+	}
+
+	public int getLeasedCount() {
+		return keyByLeased.size();
+	}
+
+	protected int getLeasedCount(String key) {
+		int count = 0;
+		for (String leasedKey : keyByLeased.values()) {
+			if (leasedKey.equals(key)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public long getLaunches() {
+		return launches.get();
+	}
+
+	public long getReuses() {
+		return reuses.get();
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"launches=%d, reuses=%d, releases=%d, idle=%d, leased=%d, launchFailures=%d, healthCheckFailures=%d, resetFailures=%d, evictions=%d",
+				launches.get(), reuses.get(), releases.get(), getIdleCount(), getLeasedCount(), launchFailures.get(),
+				healthCheckFailures.get(), resetFailures.get(), evictions.get());
+	}
+
+	protected Queue<IdleWebDriver> getIdle(String key) {
+		synchronized (idleByKey) {
+			Queue<IdleWebDriver> idle = idleByKey.get(key);
+			if (idle == null) {
+				idle = new ConcurrentLinkedQueue<IdleWebDriver>();
+				idleByKey.put(key, idle);
+				launchingByKey.put(key, new AtomicInteger());
+			}
+			return idle;
+		}
+	}
+
+	protected void launchInBackground(final String key, final Factory factory) {
+		final Queue<IdleWebDriver> idle = getIdle(key);
+		final AtomicInteger launching = launchingByKey.get(key);
+		synchronized (launching) {
+			while (!shutdown && idle.size() + launching.get() + getLeasedCount(key) < maxIdlePerKey) {
+				launching.incrementAndGet();
+				launcher.execute(new Runnable() {
+
+					@Override
+					public void run() {
+						try {
+							if (idle.size() + getLeasedCount(key) >= maxIdlePerKey) {
+								// Released browsers filled up the pool meanwhile
+								return;
+							}
+							WebDriver webDriver = factory.create();
+							launches.incrementAndGet();
+							if (shutdown || idle.size() >= maxIdlePerKey) {
+								quitQuietly(webDriver);
+							} else {
+								idle.offer(new IdleWebDriver(webDriver));
+							}
+						} catch (Throwable t) {
+							launchFailures.incrementAndGet();
+						} finally {
+							launching.decrementAndGet();
+						}
+					}
+				});
+			}
+		}
+	}
+
+	protected void evictIdle() {
+		long now = System.currentTimeMillis();
+		for (Queue<IdleWebDriver> idle : idleByKey.values()) {
+			Iterator<IdleWebDriver> iterator = idle.iterator();
+			while (iterator.hasNext()) {
+				IdleWebDriver idleWebDriver = iterator.next();
+				if (now - idleWebDriver.idleSince > idleTimeoutMillis && idle.remove(idleWebDriver)) {
+					evictions.incrementAndGet();
+					quitQuietly(idleWebDriver.webDriver);
+				}
+			}
+		}
+	}
+
+	protected boolean isHealthy(WebDriver webDriver) {
+		try {
+			webDriver.getWindowHandle();
+			return true;
+		} catch (Throwable t) {
+			return false;
+		}
+	}
+
+	/**
+	 * Brings a browser back to a state like a newly started one.
+	 */
+	protected boolean reset(WebDriver webDriver) {
+		try {
+			// Close all windows but the first one
+			Set<String> windowHandles = webDriver.getWindowHandles();
+			String firstWindowHandle = windowHandles.iterator().next();
+			for (String windowHandle : windowHandles) {
+				if (!windowHandle.equals(firstWindowHandle)) {
+					webDriver.switchTo().window(windowHandle);
+					webDriver.close();
+				}
+			}
+			webDriver.switchTo().window(firstWindowHandle);
+			webDriver.switchTo().defaultContent();
+
+			// Cookies and web storage can only be cleared for the current
+			// document, so clear them before leaving it.
+			webDriver.manage().deleteAllCookies();
+			if (webDriver instanceof JavascriptExecutor) {
+				try {
+					((JavascriptExecutor) webDriver).executeScript(
+							"try { window.localStorage.clear(); } catch (e) {}"
+									+ "try { window.sessionStorage.clear(); } catch (e) {}");
+				} catch (Throwable t) {
+					// No web storage in this document
+				}
+			}
+			webDriver.get("about:blank");
+			return true;
+		} catch (Throwable t) {
+			return false;
+		}
+	}
+
+	protected void quitQuietly(WebDriver webDriver) {
+		try {
+			webDriver.quit();
+		} catch (Throwable t) {
+			// Already gone
+		}
+	}
+
+	protected static class IdleWebDriver {
+
+		final WebDriver webDriver;
+
+		final long idleSince = System.currentTimeMillis();
+
+		IdleWebDriver(WebDriver webDriver) {
+			this.webDriver = webDriver;
+		}
+	}
+}
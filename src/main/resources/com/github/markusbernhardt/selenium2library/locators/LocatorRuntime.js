@@ -0,0 +1,458 @@
+/*
+ * Locator runtime of the Selenium2Library. Injected once per document and
+ * published as window.__selenium2library. All functions are called with their
+ * arguments by LocatorRuntime.java, so no locator is ever concatenated into
+ * JavaScript source.
+ */
+(function(window, document) {
+	if (window.__selenium2library) {
+		return;
+	}
+
+	var PSEUDO_FILTER = /^:(contains|visible|hidden|first|last|eq|gt|lt|even|odd)(?![\w-])(?:\((?:"([^"]*)"|'([^']*)'|([^)]*))\))?/;
+
+	var HAS_PSEUDO_FILTER = /:(contains|visible|hidden|first|last|eq|gt|lt|even|odd)(?![\w-])/;
+
+	var SUPPORTED_FILTERS = ':contains, :visible, :hidden, :first, :last, :eq, :gt, :lt, :even and :odd';
+
+	function toArray(nodes) {
+		var array = [];
+		if (nodes) {
+			for (var i = 0; i < nodes.length; i++) {
+				array.push(nodes[i]);
+			}
+		}
+		return array;
+	}
+
+	function isVisible(element) {
+		if (element.offsetWidth || element.offsetHeight) {
+			return true;
+		}
+		// Some browsers report client rects for elements not rendered at all
+		for (var node = element; node && node.nodeType == 1; node = node.parentNode) {
+			if (window.getComputedStyle && window.getComputedStyle(node, null).display == 'none') {
+				return false;
+			}
+		}
+		return !!(element.getClientRects && element.getClientRects().length);
+	}
+
+	function textOf(element) {
+		return element.textContent !== undefined ? element.textContent : element.innerText;
+	}
+
+	function applyFilter(elements, name, argument) {
+		var result = [];
+		var index = argument !== undefined && argument !== '' ? parseInt(argument, 10) : 0;
+		if (index < 0) {
+			index += elements.length;
+		}
+		for (var i = 0; i < elements.length; i++) {
+			var element = elements[i];
+			if ((name == 'contains' && textOf(element).indexOf(argument) != -1)
+					|| (name == 'visible' && isVisible(element)) || (name == 'hidden' && !isVisible(element))
+					|| (name == 'first' && i == 0) || (name == 'last' && i == elements.length - 1)
+					|| (name == 'eq' && i == index) || (name == 'gt' && i > index) || (name == 'lt' && i < index)
+					|| (name == 'even' && i % 2 == 0) || (name == 'odd' && i % 2 == 1)) {
+				result.push(element);
+			}
+		}
+		return result;
+	}
+
+	function matches(element, css) {
+		var fn = element.matches || element.msMatchesSelector || element.webkitMatchesSelector
+				|| element.mozMatchesSelector;
+		if (fn) {
+			return fn.call(element, css);
+		}
+		// Older browsers, e.g. HtmlUnit. A compound selector matches the
+		// element regardless of the ancestors, so the parent is enough.
+		var candidates = element.parentNode.querySelectorAll(css);
+		for (var i = 0; i < candidates.length; i++) {
+			if (candidates[i] === element) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	function inDocumentOrder(elements) {
+		elements.sort(function(a, b) {
+			return a === b ? 0 : (a.compareDocumentPosition(b) & 4 ? -1 : 1);
+		});
+		var result = [];
+		for (var i = 0; i < elements.length; i++) {
+			if (i == 0 || elements[i] !== elements[i - 1]) {
+				result.push(elements[i]);
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Splits a selector into its groups (separated by commas) of compound
+	 * selectors (separated by combinators). Commas, combinators and filters
+	 * inside quotes, brackets and parentheses are left alone.
+	 */
+	function splitSelector(selector) {
+		var groups = [];
+		var steps = [];
+		var combinator = ' ';
+		var compound = '';
+		var quote = null;
+		var depth = 0;
+
+		function endCompound() {
+			if (compound) {
+				steps.push(parseCompound(combinator, compound));
+				combinator = ' ';
+				compound = '';
+			}
+		}
+
+		for (var i = 0; i < selector.length; i++) {
+			var c = selector.charAt(i);
+			if (quote) {
+				quote = c == quote && selector.charAt(i - 1) != '\\' ? null : quote;
+			} else if (c == '"' || c == "'") {
+				quote = c;
+			} else if (c == '(' || c == '[') {
+				depth++;
+			} else if (c == ')' || c == ']') {
+				depth--;
+			} else if (depth == 0 && (c == ',' || c == '>' || c == '+' || c == '~' || /\s/.test(c))) {
+				endCompound();
+				if (c == ',') {
+					groups.push(steps);
+					steps = [];
+				} else if (!/\s/.test(c)) {
+					combinator = c;
+				}
+				continue;
+			}
+			compound += c;
+		}
+		endCompound();
+		groups.push(steps);
+		return groups;
+	}
+
+	/*
+	 * Separates the jQuery filter extensions from the CSS of a compound
+	 * selector, e.g. "tr.row:visible:eq(1)" into "tr.row" and the filters
+	 * "visible" and "eq(1)".
+	 */
+	function parseCompound(combinator, compound) {
+		var css = '';
+		var filters = [];
+		var quote = null;
+		var depth = 0;
+		for (var i = 0; i < compound.length; i++) {
+			var c = compound.charAt(i);
+			if (quote) {
+				quote = c == quote && compound.charAt(i - 1) != '\\' ? null : quote;
+			} else if (c == '"' || c == "'") {
+				quote = c;
+			} else if (c == '(' || c == '[') {
+				depth++;
+			} else if (c == ')' || c == ']') {
+				depth--;
+			} else if (depth == 0 && c == ':') {
+				var match = PSEUDO_FILTER.exec(compound.substring(i));
+				if (match !== null) {
+					var argument = match[2] !== undefined ? match[2] : (match[3] !== undefined ? match[3] : match[4]);
+					filters.push([ match[1], argument ]);
+					i += match[0].length - 1;
+					continue;
+				}
+			}
+			css += c;
+		}
+		return {
+			combinator : combinator,
+			css : css || '*',
+			filters : filters
+		};
+	}
+
+	function selectStep(contexts, step) {
+		var elements = [];
+		for (var i = 0; i < contexts.length; i++) {
+			var context = contexts[i];
+			if (step.combinator == ' ') {
+				elements = elements.concat(toArray(context.querySelectorAll(step.css)));
+				continue;
+			}
+			var candidate = step.combinator == '>' ? context.firstChild : context.nextSibling;
+			for (; candidate; candidate = candidate.nextSibling) {
+				if (candidate.nodeType == 1) {
+					if (matches(candidate, step.css)) {
+						elements.push(candidate);
+					}
+					if (step.combinator == '+') {
+						break;
+					}
+				}
+			}
+		}
+		return contexts.length > 1 ? inDocumentOrder(elements) : elements;
+	}
+
+	/*
+	 * Minimal selector engine used, if the page provides neither jQuery nor
+	 * Sizzle: native CSS selectors, extended by the most common jQuery filters
+	 * after any compound selector, e.g. "table tr:visible:eq(1) > td:first".
+	 * Like in jQuery, a filter applies to all elements matched by the selector
+	 * up to the filter. Filters are not supported inside other pseudo-classes,
+	 * e.g. ":not(:visible)".
+	 */
+	function nativeSelect(selector, context) {
+		context = context || document;
+		if (!HAS_PSEUDO_FILTER.test(selector)) {
+			return toArray(context.querySelectorAll(selector));
+		}
+		var groups = splitSelector(selector);
+		var elements = [];
+		for (var i = 0; i < groups.length; i++) {
+			var contexts = [ context ];
+			for (var j = 0; j < groups[i].length; j++) {
+				var step = groups[i][j];
+				contexts = selectStep(contexts, step);
+				for (var k = 0; k < step.filters.length; k++) {
+					contexts = applyFilter(contexts, step.filters[k][0], step.filters[k][1]);
+				}
+			}
+			elements = elements.concat(contexts);
+		}
+		return groups.length > 1 ? inDocumentOrder(elements) : elements;
+	}
+
+	function select(selector, context) {
+		try {
+			return nativeSelect(selector, context);
+		} catch (e) {
+			throw new Error("Invalid or unsupported selector '" + selector + "': " + e.message
+					+ ". Without jQuery or Sizzle on the page, only CSS selectors and the filters "
+					+ SUPPORTED_FILTERS + ' are supported.');
+		}
+	}
+
+	function find(kind, expression) {
+		if (kind == 'css') {
+			return toArray(document.querySelectorAll(expression));
+		}
+		if (kind == 'tag') {
+			return toArray(document.getElementsByTagName(expression));
+		}
+		if (kind == 'jquery') {
+			return runtime.select(expression);
+		}
+		if (kind == 'xpath') {
+			var snapshot = document.evaluate(expression, document, null, 7, null);
+			var elements = [];
+			for (var i = 0; i < snapshot.snapshotLength; i++) {
+				if (snapshot.snapshotItem(i).nodeType == 1) {
+					elements.push(snapshot.snapshotItem(i));
+				}
+			}
+			return elements;
+		}
+		throw new Error('Unknown kind ' + kind);
+	}
+
+	/*
+	 * Evaluates a single condition given as [type, argument...]. Element
+	 * conditions take the kind and expression of a translated locator.
+	 */
+	function evaluate(condition) {
+		var type = condition[0];
+		var element;
+		switch (type) {
+		case 'present':
+			return find(condition[1], condition[2]).length > 0;
+		case 'notPresent':
+			return find(condition[1], condition[2]).length == 0;
+		case 'visible':
+			element = find(condition[1], condition[2])[0];
+			return !!element && isVisible(element);
+		case 'notVisible':
+			element = find(condition[1], condition[2])[0];
+			return !element || !isVisible(element);
+		case 'clickable':
+			element = find(condition[1], condition[2])[0];
+			return !!element && isVisible(element) && !element.disabled;
+		case 'text':
+			return textOf(document.documentElement).indexOf(condition[1]) != -1;
+		case 'notText':
+			return textOf(document.documentElement).indexOf(condition[1]) == -1;
+		case 'title':
+			return document.title == condition[1];
+		case 'notTitle':
+			return document.title != condition[1];
+		case 'titleContains':
+			return document.title.indexOf(condition[1]) != -1;
+		case 'notTitleContains':
+			return document.title.indexOf(condition[1]) == -1;
+		case 'js':
+			return new Function(condition[1]).call(window) === true;
+		case 'networkIdle':
+			var monitor = window.__selenium2libraryNetwork;
+			return !!monitor && monitor.isIdle(condition[1]);
+		}
+		throw new Error('Unknown condition ' + type);
+	}
+
+	var STRATEGY_MISSING = '__selenium2library_strategy_missing__';
+	var DEFINITION_FAILED = '__selenium2library_definition_failed__';
+
+	var runtime = {
+
+		strategies : {},
+
+		select : function(selector, context) {
+			if (window.jQuery) {
+				return window.jQuery(selector, context).get();
+			}
+			if (window.Sizzle) {
+				return window.Sizzle(selector, context);
+			}
+			return select(selector, context);
+		},
+
+		/*
+		 * Calls the custom location strategy registered under the given name
+		 * and version. Returns STRATEGY_MISSING, if it is not defined in this
+		 * document yet.
+		 */
+		callStrategy : function(name, version, args) {
+			var strategy = this.strategies[name];
+			if (!strategy || strategy.version !== version) {
+				return STRATEGY_MISSING;
+			}
+			return strategy.fn.apply(window, args);
+		},
+
+		/*
+		 * Compiles the function definition of a custom location strategy once
+		 * and calls it afterwards. Returns DEFINITION_FAILED, if the page does
+		 * not allow compiling it. Errors of the strategy itself are thrown.
+		 */
+		defineStrategy : function(name, version, functionDefinition, args) {
+			var fn;
+			try {
+				fn = new Function(functionDefinition);
+			} catch (e) {
+				return DEFINITION_FAILED;
+			}
+			this.strategies[name] = {
+				version : version,
+				fn : fn
+			};
+			return this.callStrategy(name, version, args);
+		},
+
+		/*
+		 * Evaluates all conditions. A condition that can not be evaluated is
+		 * false.
+		 */
+		evaluate : function(conditions) {
+			var states = [];
+			for (var i = 0; i < conditions.length; i++) {
+				try {
+					states.push(evaluate(conditions[i]));
+				} catch (e) {
+					states.push(false);
+				}
+			}
+			return states;
+		},
+
+		/*
+		 * Calls back as soon as all (or any) conditions are true or the
+		 * timeout in milliseconds expired. The conditions are evaluated on
+		 * every change of the document and every 250 milliseconds, as not all
+		 * changes (e.g. CSS transitions) are visible to a MutationObserver.
+		 * The times are the milliseconds after which each condition became
+		 * true.
+		 */
+		waitFor : function(conditions, all, timeout, callback) {
+			var self = this;
+			var start = new Date().getTime();
+			var times = [];
+			var states = [];
+			var finished = false;
+			var pending = false;
+			var observer = null;
+			var interval = null;
+			var timer = null;
+
+			function finish(done) {
+				if (finished) {
+					return;
+				}
+				finished = true;
+				if (observer) {
+					observer.disconnect();
+				}
+				clearInterval(interval);
+				clearTimeout(timer);
+				callback({
+					done : done,
+					states : states,
+					times : times,
+					elapsed : new Date().getTime() - start
+				});
+			}
+
+			function check() {
+				pending = false;
+				if (finished) {
+					return;
+				}
+				states = self.evaluate(conditions);
+				var now = new Date().getTime() - start;
+				var done = all;
+				for (var i = 0; i < states.length; i++) {
+					if (!states[i]) {
+						times[i] = null;
+					} else if (times[i] === undefined || times[i] === null) {
+						times[i] = now;
+					}
+					done = all ? done && states[i] : done || states[i];
+				}
+				if (done) {
+					finish(true);
+				}
+			}
+
+			check();
+			if (finished) {
+				return;
+			}
+			var MutationObserver = window.MutationObserver || window.WebKitMutationObserver;
+			if (MutationObserver) {
+				observer = new MutationObserver(function() {
+					if (!pending) {
+						pending = true;
+						setTimeout(check, 0);
+					}
+				});
+				observer.observe(document.documentElement, {
+					childList : true,
+					subtree : true,
+					attributes : true,
+					characterData : true
+				});
+			}
+			interval = setInterval(check, 250);
+			timer = setTimeout(function() {
+				check();
+				finish(false);
+			}, timeout);
+		}
+	};
+
+	window.__selenium2library = runtime;
+})(window, document);
@@ -0,0 +1,126 @@
+/*
+ * Network monitor of the Selenium2Library. Wraps XMLHttpRequest and fetch to
+ * count the requests in flight and published as window.__selenium2libraryNetwork.
+ * Requests started before the monitor was installed are not counted, but
+ * their completion shows up in the resource timing entries and counts as
+ * network activity. Completed XMLHttpRequests are also noticed without their
+ * events, as not all browsers deliver them to listeners added this late.
+ */
+(function(window, document) {
+	if (window.__selenium2libraryNetwork) {
+		return;
+	}
+
+	function now() {
+		return new Date().getTime();
+	}
+
+	function countResources() {
+		var performance = window.performance;
+		return performance && performance.getEntriesByType ? performance.getEntriesByType('resource').length : 0;
+	}
+
+	var monitor = {
+		pending : 0,
+		requests : 0,
+		resources : countResources(),
+		lastActivity : now(),
+		xhrs : [],
+
+		started : function() {
+			this.pending++;
+			this.requests++;
+			this.lastActivity = now();
+		},
+
+		finished : function() {
+			this.pending = Math.max(0, this.pending - 1);
+			this.lastActivity = now();
+		},
+
+		/*
+		 * Counts the XMLHttpRequest as finished, if it is done and not
+		 * counted yet.
+		 */
+		settle : function(request, force) {
+			if (!force && request.readyState != 4) {
+				return;
+			}
+			for (var i = 0; i < this.xhrs.length; i++) {
+				if (this.xhrs[i] === request) {
+					this.xhrs.splice(i, 1);
+					this.finished();
+					return;
+				}
+			}
+		},
+
+		state : function() {
+			for (var i = this.xhrs.length - 1; i >= 0; i--) {
+				this.settle(this.xhrs[i]);
+			}
+			var resources = countResources();
+			if (resources != this.resources) {
+				this.resources = resources;
+				this.lastActivity = now();
+			}
+			return {
+				pending : this.pending,
+				requests : this.requests,
+				idle : now() - this.lastActivity,
+				ready : document.readyState == 'complete'
+			};
+		},
+
+		isIdle : function(idleTime) {
+			var state = this.state();
+			return state.ready && state.pending == 0 && state.idle >= idleTime;
+		}
+	};
+
+	var XMLHttpRequest = window.XMLHttpRequest;
+	if (XMLHttpRequest && XMLHttpRequest.prototype && XMLHttpRequest.prototype.send) {
+		var send = XMLHttpRequest.prototype.send;
+		XMLHttpRequest.prototype.send = function() {
+			var request = this;
+			function finished() {
+				monitor.settle(request);
+			}
+			monitor.started();
+			monitor.xhrs.push(request);
+			if (request.addEventListener) {
+				request.addEventListener('readystatechange', finished, false);
+				request.addEventListener('loadend', finished, false);
+			}
+			try {
+				return send.apply(request, arguments);
+			} catch (e) {
+				monitor.settle(request, true);
+				throw e;
+			}
+		};
+	}
+
+	var fetch = window.fetch;
+	if (fetch) {
+		window.fetch = function() {
+			monitor.started();
+			var response;
+			try {
+				response = fetch.apply(this, arguments);
+			} catch (e) {
+				monitor.finished();
+				throw e;
+			}
+			return response.then(function(value) {
+				monitor.finished();
+				return value;
+			}, function(error) {
+				monitor.finished();
+				throw error;
+			});
+		};
+	}
+
+	window.__selenium2libraryNetwork = monitor;
+})(window, document);